@@ -0,0 +1,124 @@
+package com.fico.karate.utils;
+
+import java.util.*;
+
+/**
+ * Synthetic templates, CSV rows and responses shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Bob", "Alice", "Charlie"};
+    private static final String[] LAST_NAMES = {"Doe", "Smith", "Pending", "Johnson", "Risk"};
+    private static final String[] DECISION_CODES = {"A", "D", "P"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a template from the PLOR template with the given number of applicants and a nested
+     * "extensions" block deep enough for paths of {@code pathDepth}
+     */
+    static Map<String, Object> template(Map<String, Object> plorTemplate, int applicants, int pathDepth) {
+        Map<String, Object> template = mutableCopy(plorTemplate);
+
+        @SuppressWarnings("unchecked")
+        List<Object> applicantList = (List<Object>) template.get("applicants");
+        Object firstApplicant = applicantList.get(0);
+        while (applicantList.size() < applicants) {
+            applicantList.add(mutableCopy(firstApplicant));
+        }
+
+        Map<String, Object> level = new LinkedHashMap<>();
+        template.put("extensions", level);
+        for (int depth = 2; depth < pathDepth; depth++) {
+            Map<String, Object> next = new LinkedHashMap<>();
+            level.put("level" + depth, next);
+            level = next;
+        }
+        for (int field = 0; field < 5; field++) {
+            level.put("field" + field, "default");
+        }
+
+        return template;
+    }
+
+    /**
+     * Builds CSV rows in the shape of plor_test_scenarios.csv plus five columns at the requested path depth
+     */
+    static List<Map<String, String>> csvRows(int rows, int applicants, int pathDepth) {
+        StringBuilder prefix = new StringBuilder("extensions.");
+        for (int depth = 2; depth < pathDepth; depth++) {
+            prefix.append("level").append(depth).append('.');
+        }
+
+        List<Map<String, String>> csvRows = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            Map<String, String> csvRow = new LinkedHashMap<>();
+            csvRow.put("testCaseName", "Benchmark_" + row);
+            csvRow.put("application.applicationId", "APP-" + row);
+            csvRow.put("application.bomVersionId", "v1.0");
+
+            String applicant = "applicants[" + (row % applicants) + "]";
+            csvRow.put(applicant + ".firstName", FIRST_NAMES[row % FIRST_NAMES.length]);
+            csvRow.put(applicant + ".lastName", LAST_NAMES[row % LAST_NAMES.length]);
+            csvRow.put(applicant + ".creditProfile.creditScore", String.valueOf(300 + row % 550));
+
+            for (int field = 0; field < 5; field++) {
+                csvRow.put(prefix + "field" + field, "value" + row);
+            }
+
+            csvRow.put("response.creditDecisioning.decisioning.subProductDecisions[0].decisionSummary.automatedDecisionCode",
+                    DECISION_CODES[row % DECISION_CODES.length]);
+            csvRow.put("response.creditDecisioning.decisioning.subProductDecisions[0].creditLineAssignment.creditLimitAmount",
+                    "15000");
+            csvRows.add(csvRow);
+        }
+        return csvRows;
+    }
+
+    /**
+     * Builds a response in the shape returned by the mock's transaction endpoint
+     */
+    static Map<String, Object> response() {
+        Map<String, Object> decisionSummary = new HashMap<>();
+        decisionSummary.put("automatedDecisionCode", "A");
+        decisionSummary.put("decisionCode", "A");
+        decisionSummary.put("decisionReason", "Approved - Good credit profile");
+
+        Map<String, Object> creditLineAssignment = new HashMap<>();
+        creditLineAssignment.put("creditLimitAmount", 15000);
+        creditLineAssignment.put("interestRate", 12.99);
+
+        Map<String, Object> subProductDecision = new HashMap<>();
+        subProductDecision.put("decisionSummary", decisionSummary);
+        subProductDecision.put("creditLineAssignment", creditLineAssignment);
+        subProductDecision.put("productCode", "CC001");
+
+        Map<String, Object> decisioning = new HashMap<>();
+        decisioning.put("subProductDecisions", List.of(subProductDecision));
+
+        Map<String, Object> creditDecisioning = new HashMap<>();
+        creditDecisioning.put("decisioning", decisioning);
+        creditDecisioning.put("applicationId", "APP-1001");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "SUCCESS");
+        response.put("transactionId", "TXN_1");
+        response.put("creditDecisioning", creditDecisioning);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T mutableCopy(Object node) {
+        if (node instanceof Map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            ((Map<String, Object>) node).forEach((key, value) -> copy.put(key, mutableCopy(value)));
+            return (T) copy;
+        } else if (node instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            ((List<Object>) node).forEach(item -> copy.add(mutableCopy(item)));
+            return (T) copy;
+        }
+        return (T) node;
+    }
+}
@@ -0,0 +1,31 @@
+package com.fico.karate.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks schema loading and CSV cell conversion, both of which run once per config evaluation or cell
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SchemaLoadingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Cell {
+        @Param({"750", "12.99", "APP-1001", "true"})
+        public String value;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<String, Object> loadSchemaAsMap() {
+        return YamlSchemaUtils.loadSchemaAsMap("classpath:api_schema.yaml");
+    }
+
+    @Benchmark
+    public Object convertValue(Cell cell) {
+        return YamlSchemaUtils.convertValue(cell.value);
+    }
+}
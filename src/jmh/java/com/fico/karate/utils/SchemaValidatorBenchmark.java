@@ -0,0 +1,34 @@
+package com.fico.karate.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks compiled schema validation of PLOR request payloads of varying size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SchemaValidatorBenchmark {
+
+    private static final String TEMPLATE_PATH = "classpath:com/fico/tests/features/plor/plor_api_template.json";
+
+    @Param({"1", "10", "50"})
+    public int applicants;
+
+    private SchemaValidator validator;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() {
+        validator = SchemaValidator.forRequestBody("classpath:api_schema.yaml", "/api/plor/v1/transaction", "post");
+        payload = BenchmarkData.template(JsonTemplate.load(TEMPLATE_PATH).getJson(), applicants, 2);
+    }
+
+    @Benchmark
+    public List<SchemaValidator.Violation> validateRequest() {
+        return validator.validate(payload);
+    }
+}
@@ -0,0 +1,82 @@
+package com.fico.karate.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks CSV-driven request population and response validation.
+ * Each invocation processes {@code rows} CSV rows, so divide the score by the row count for per-row cost.
+ * Run with {@code ./gradlew jmh -PjmhInclude=YamlSchemaUtilsBenchmark}; allocation rates come from the GC profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class YamlSchemaUtilsBenchmark {
+
+    private static final String TEMPLATE_PATH = "classpath:com/fico/tests/features/plor/plor_api_template.json";
+
+    /** Number of applicants in the template, controlling its size */
+    @Param({"1", "10", "50"})
+    public int applicants;
+
+    /** Depth of the dot-notation paths in the CSV columns */
+    @Param({"2", "6"})
+    public int pathDepth;
+
+    @Param({"1", "1000"})
+    public int rows;
+
+    private Map<String, Object> templateJson;
+    private JsonTemplate jsonTemplate;
+    private JsonTemplate plannedTemplate;
+    private List<Map<String, String>> csvRows;
+    private Map<String, Object> responseJson;
+
+    @Setup
+    public void setUp() {
+        templateJson = BenchmarkData.template(JsonTemplate.load(TEMPLATE_PATH).getJson(), applicants, pathDepth);
+        jsonTemplate = JsonTemplate.of(templateJson);
+        plannedTemplate = jsonTemplate.withConversions(
+                ValueConversionPlan.forRequestBody("classpath:api_schema.yaml", "/api/plor/v1/transaction", "post"));
+        csvRows = BenchmarkData.csvRows(rows, applicants, pathDepth);
+        responseJson = BenchmarkData.response();
+    }
+
+    @Benchmark
+    public void populateJsonFromCsv(Blackhole blackhole) {
+        for (Map<String, String> csvRow : csvRows) {
+            blackhole.consume(YamlSchemaUtils.populateJsonFromCsv(templateJson, csvRow));
+        }
+    }
+
+    @Benchmark
+    public void populateFromJsonTemplate(Blackhole blackhole) {
+        for (Map<String, String> csvRow : csvRows) {
+            blackhole.consume(jsonTemplate.populate(csvRow));
+        }
+    }
+
+    @Benchmark
+    public void populateWithSchemaConversions(Blackhole blackhole) {
+        for (Map<String, String> csvRow : csvRows) {
+            blackhole.consume(plannedTemplate.populate(csvRow));
+        }
+    }
+
+    @Benchmark
+    public void validateResponseFromCsv(Blackhole blackhole) {
+        for (Map<String, String> csvRow : csvRows) {
+            blackhole.consume(YamlSchemaUtils.validateResponseFromCsv(responseJson, csvRow));
+        }
+    }
+
+    @Benchmark
+    public void validateWithResponseValidator(Blackhole blackhole) {
+        for (Map<String, String> csvRow : csvRows) {
+            blackhole.consume(ResponseValidator.validate(responseJson, csvRow, ResponseValidator.Mode.COLLECT_ALL));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.fico.mock;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks decision rule evaluation against generated tables mixing exact, multi-value and range conditions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DecisionRulesBenchmark {
+
+    private static final String[] CHANNELS = {"ONLINE", "BRANCH", "PHONE", "PARTNER"};
+
+    @Param({"10", "1000", "5000"})
+    public int rules;
+
+    private DecisionRules decisionRules;
+    private String[] fields;
+
+    @Setup
+    public void setUp() throws Exception {
+        StringBuilder csv = new StringBuilder("ruleId,application.channel,applicants[0].lastName,applicants[0].creditProfile.creditScore,decisionCode\n");
+        for (int i = 0; i < rules - 1; i++) {
+            int low = 300 + (i * 7) % 500;
+            csv.append("RULE_").append(i).append(',')
+                    .append(i % 3 == 0 ? "" : CHANNELS[i % CHANNELS.length] + "|" + CHANNELS[(i + 1) % CHANNELS.length]).append(',')
+                    .append(i % 5 == 0 ? "Name" + i : "").append(',')
+                    .append(low).append("..").append(low + 10).append(',')
+                    .append(i % 2 == 0 ? "D" : "P").append('\n');
+        }
+        csv.append("DEFAULT,,,,A\n");
+
+        decisionRules = DecisionRules.compile("benchmark", new StringReader(csv.toString()), List.of("application.applicationId"));
+        fields = new String[]{"APP-1001", "PHONE", "Doe", "850"};
+    }
+
+    @Benchmark
+    public DecisionRules.Rule evaluate() {
+        return decisionRules.evaluate(fields);
+    }
+}
@@ -0,0 +1,106 @@
+package com.fico.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the mock's request handling and response building without the servlet container,
+ * including Jackson serialisation of the transaction response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MockServerApplicationBenchmark {
+
+    private static final String TEMPLATE_RESOURCE = "com/fico/tests/features/plor/plor_api_template.json";
+    private static final int BATCH_SIZE = 100;
+
+    /** Last name of the first applicant, selecting the A, D or P decision branch */
+    @Param({"Doe", "Risk", "Pending"})
+    public String lastName;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockServerApplication application;
+    private BatchProcessor batchProcessor;
+    private DecisionRules decisionRules;
+    private byte[] transactionRequest;
+    private String[] transactionFields;
+    private byte[] batchRequest;
+    private Map<String, Object> decisionRequest;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        DecisionRuleEngine ruleEngine = new DecisionRuleEngine("classpath:decision_rules.csv", List.of("application.applicationId"));
+        batchProcessor = new BatchProcessor(4, 64);
+        application = new MockServerApplication(ruleEngine, new MockMetrics(new SimpleMeterRegistry()), new TokenStore(3600, 1000),
+                RecordReplay.live(), batchProcessor);
+        decisionRules = ruleEngine.current();
+
+        Map<String, Object> template;
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(TEMPLATE_RESOURCE)) {
+            template = objectMapper.readValue(inputStream, Map.class);
+        }
+        List<Map<String, Object>> applicants = (List<Map<String, Object>>) template.get("applicants");
+        applicants.get(0).put("lastName", lastName);
+        transactionRequest = objectMapper.writeValueAsBytes(template);
+        transactionFields = decisionRules.getExtractor().extract(new ByteArrayInputStream(transactionRequest));
+
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.write(transactionRequest);
+            batch.write('\n');
+        }
+        batchRequest = batch.toByteArray();
+
+        decisionRequest = new HashMap<>();
+        decisionRequest.put("applicationId", "APP-TEST");
+        decisionRequest.put("riskFactors", List.of("income", "credit_score"));
+    }
+
+    @Benchmark
+    public Object createCreditDecisioningResponse() {
+        return application.createCreditDecisioningResponse(decisionRules.evaluate(transactionFields), "APP-1001", Timestamps.now());
+    }
+
+    @Benchmark
+    public Object processTransaction() throws Exception {
+        return application.processTransaction(new ByteArrayInputStream(transactionRequest));
+    }
+
+    @Benchmark
+    public byte[] processTransactionAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(application.processTransaction(new ByteArrayInputStream(transactionRequest)).getBody());
+    }
+
+    /**
+     * A batch of {@value #BATCH_SIZE} transactions on four threads, streamed to a discarding output
+     */
+    @Benchmark
+    public void processBatch() throws Exception {
+        application.processBatch(new ByteArrayInputStream(batchRequest)).getBody().writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public Object makeDecision() {
+        return application.makeDecision(decisionRequest);
+    }
+
+    @Benchmark
+    public Object authenticate() {
+        return application.authenticate(Collections.emptyMap());
+    }
+
+    @TearDown
+    public void tearDown() {
+        batchProcessor.close();
+    }
+}
@@ -0,0 +1,123 @@
+package com.fico.karate.utils;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Submits many transaction payloads through the mock's batch endpoint. Payloads are split into NDJSON
+ * batches, up to {@link #MAX_CONCURRENT_BATCHES} batches are in flight at once, and the streamed results
+ * are returned in payload order, so Karate can check thousands of rows with a handful of HTTP calls.
+ */
+public final class BatchTransactionClient {
+
+    static final int MAX_CONCURRENT_BATCHES = 4;
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private BatchTransactionClient() {
+    }
+
+    /**
+     * Posts payloads in batches and collects one result per payload
+     * @param batchUrl Batch endpoint (e.g., "http://localhost:8090/api/plor/v1/transaction/batch")
+     * @param authorization Authorization header value, or null to send none
+     * @param payloads Transaction request payloads
+     * @param batchSize Payloads per request
+     * @return Results in payload order, each with "index", "status" and "response"
+     */
+    public static List<Map<String, Object>> submit(String batchUrl, String authorization, List<Map<String, Object>> payloads, int batchSize) {
+        if (batchSize < 1) {
+            throw new RuntimeException("Batch size must be at least 1: " + batchSize);
+        }
+
+        Semaphore window = new Semaphore(MAX_CONCURRENT_BATCHES);
+        List<CompletableFuture<List<Map<String, Object>>>> batches = new ArrayList<>();
+        try {
+            for (int offset = 0; offset < payloads.size(); offset += batchSize) {
+                List<Map<String, Object>> batch = payloads.subList(offset, Math.min(offset + batchSize, payloads.size()));
+                int first = offset;
+                window.acquire();
+                batches.add(send(batchUrl, authorization, batch)
+                        .thenApply(response -> readResults(batchUrl, response, first))
+                        .whenComplete((results, error) -> window.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while submitting batches to " + batchUrl, e);
+        }
+
+        List<Map<String, Object>> ordered = new ArrayList<>(Collections.nCopies(payloads.size(), null));
+        try {
+            for (CompletableFuture<List<Map<String, Object>>> batch : batches) {
+                for (Map<String, Object> result : batch.join()) {
+                    ordered.set((Integer) result.get("index"), result);
+                }
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new RuntimeException("Batch request to " + batchUrl + " failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i) == null) {
+                throw new RuntimeException("No batch result for payload " + i + " from " + batchUrl);
+            }
+        }
+        return ordered;
+    }
+
+    private static CompletableFuture<HttpResponse<byte[]>> send(String batchUrl, String authorization, List<Map<String, Object>> batch) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(batch.size() * 1024);
+        try {
+            for (Map<String, Object> payload : batch) {
+                YamlSchemaUtils.jsonMapper.writeValue(body, payload);
+                body.write('\n');
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialise batch for " + batchUrl, e);
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(batchUrl))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "application/x-ndjson")
+                .header("Accept", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Parses the NDJSON result lines of one batch, shifting each index by the batch's first payload
+     */
+    private static List<Map<String, Object>> readResults(String batchUrl, HttpResponse<byte[]> response, int first) {
+        if (response.statusCode() != 200) {
+            throw new RuntimeException("Batch request to " + batchUrl + " failed with status " + response.statusCode());
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        try (MappingIterator<Map<String, Object>> lines = YamlSchemaUtils.jsonMapper.readerForMapOf(Object.class).readValues(response.body())) {
+            while (lines.hasNext()) {
+                Map<String, Object> result = lines.next();
+                result.put("index", first + ((Number) result.get("index")).intValue());
+                results.add(result);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read batch results from " + batchUrl + ": " + e.getMessage(), e);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,221 @@
+package com.fico.karate.utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams a scenario CSV row by row and emits populated request payloads lazily.
+ * The header is parsed once into compiled column paths and only one row is held in memory at a time,
+ * so arbitrarily large scenario files can be replayed with constant memory.
+ */
+public class CsvScenarioReader implements Iterator<Map<String, Object>>, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final JsonTemplate template;
+    private final String[] headers;
+    private final PathAccessor[] columns;
+    private final ValueConverter[] converters;
+    private final StringBuilder field = new StringBuilder();
+
+    private String[] nextValues;
+    private String[] currentValues;
+    private long rowNumber;
+    private boolean endOfInput;
+
+    /**
+     * @param reader Source of CSV text; the first record is the header, optionally preceded by a byte order mark
+     * @param template Template each row is populated into
+     */
+    public CsvScenarioReader(Reader reader, JsonTemplate template) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader, BUFFER_SIZE);
+        this.template = template;
+
+        try {
+            skipByteOrderMark();
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new RuntimeException("CSV has no header row");
+            }
+            this.headers = header.toArray(new String[0]);
+            this.columns = new PathAccessor[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                PathAccessor accessor = PathAccessor.forColumn(headers[i]);
+                columns[i] = accessor.isResponse() ? null : accessor;
+            }
+            this.converters = template.converters(columns);
+            advance();
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Failed to read CSV header", e);
+        }
+    }
+
+    /**
+     * Opens a scenario CSV from the classpath ("classpath:" prefix) or the file system
+     */
+    public static CsvScenarioReader open(String csvPath, JsonTemplate template) {
+        try {
+            InputStream inputStream = csvPath.startsWith("classpath:")
+                    ? YamlSchemaUtils.openResource(csvPath)
+                    : Files.newInputStream(Paths.get(csvPath));
+            return new CsvScenarioReader(
+                    new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE), template);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open CSV: " + csvPath, e);
+        }
+    }
+
+    /**
+     * Returns a lazy stream of populated payloads; closing the stream closes the underlying file
+     */
+    public static Stream<Map<String, Object>> stream(String csvPath, JsonTemplate template) {
+        CsvScenarioReader csvReader = open(csvPath, template);
+        Spliterator<Map<String, Object>> spliterator = Spliterators.spliteratorUnknownSize(
+                csvReader, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(csvReader::close);
+    }
+
+    public String[] getHeaders() { return headers.clone(); }
+
+    /**
+     * Raw cell values of the row most recently returned by {@link #next()}, aligned with {@link #getHeaders()}.
+     * The array is replaced, not reused, on the following call to next().
+     */
+    public String[] getCurrentValues() { return currentValues; }
+
+    /**
+     * One-based number of the row most recently returned by {@link #next()}, excluding the header
+     */
+    public long getRowNumber() { return rowNumber; }
+
+    @Override
+    public boolean hasNext() {
+        return nextValues != null;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (nextValues == null) {
+            throw new NoSuchElementException();
+        }
+        currentValues = nextValues;
+        rowNumber++;
+
+        try {
+            advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV row " + (rowNumber + 1), e);
+        }
+
+        try {
+            return template.populate(columns, converters, currentValues);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to populate JSON from CSV row " + rowNumber, e);
+        }
+    }
+
+    private void advance() throws IOException {
+        nextValues = null;
+        List<String> record;
+        while ((record = readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            String[] values = new String[headers.length];
+            for (int i = 0; i < values.length && i < record.size(); i++) {
+                values[i] = record.get(i);
+            }
+            nextValues = values;
+            return;
+        }
+        closeQuietly();
+    }
+
+    /**
+     * Drops a leading UTF-8 byte order mark, which would otherwise become part of the first header
+     */
+    private void skipByteOrderMark() throws IOException {
+        reader.mark(1);
+        if (reader.read() != BYTE_ORDER_MARK) {
+            reader.reset();
+        }
+    }
+
+    /**
+     * Reads one RFC 4180 record, honouring quoted fields with embedded commas, quotes and line breaks
+     * @return The record's fields, or null at end of input
+     */
+    private List<String> readRecord() throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+
+        List<String> record = new ArrayList<>(headers == null ? 16 : headers.length);
+        field.setLength(0);
+        boolean inQuotes = false;
+        boolean sawAny = false;
+
+        while (true) {
+            int c = reader.read();
+            if (c < 0) {
+                endOfInput = true;
+                if (!sawAny) {
+                    return null;
+                }
+                record.add(field.toString());
+                return record;
+            }
+            sawAny = true;
+
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (peek >= 0) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                record.add(field.toString());
+                return record;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        endOfInput = true;
+        nextValues = null;
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        try {
+            reader.close();
+        } catch (IOException ignored) {
+            // nothing useful to do when closing a read-only source fails
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.fico.karate.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable JSON payload template that is parsed once and instantiated per CSV row with copy-on-write.
+ * Each populated payload copies only the objects and arrays on the paths written by the row; every
+ * other branch is shared, read-only, with the template.
+ */
+public final class JsonTemplate {
+
+    private static final Map<String, JsonTemplate> cache = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> root;
+    private final ValueConversionPlan conversions;
+
+    private JsonTemplate(Map<String, Object> root, ValueConversionPlan conversions) {
+        this.root = root;
+        this.conversions = conversions;
+    }
+
+    /**
+     * Loads a JSON template file, parsing it only on the first call for a given path
+     * @param filePath Classpath location of the template (e.g., "classpath:com/fico/tests/features/plor/plor_api_template.json")
+     * @return The shared template
+     */
+    public static JsonTemplate load(String filePath) {
+        return cache.computeIfAbsent(filePath, JsonTemplate::parse);
+    }
+
+    private static JsonTemplate parse(String filePath) {
+        try (InputStream inputStream = YamlSchemaUtils.openResource(filePath)) {
+            Map<String, Object> json = YamlSchemaUtils.jsonMapper.readValue(inputStream, new TypeReference<Map<String, Object>>() {});
+            return of(json);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load JSON template from: " + filePath, e);
+        }
+    }
+
+    /**
+     * Creates a template from an in-memory JSON structure; the structure is copied, so later changes to it are not seen
+     */
+    public static JsonTemplate of(Map<String, Object> json) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> frozen = (Map<String, Object>) freeze(json);
+        return new JsonTemplate(frozen, ValueConversionPlan.INFERRED);
+    }
+
+    /**
+     * Returns a template sharing this one's JSON that converts CSV cells with the given plan, e.g.,
+     * {@code ValueConversionPlan.forRequestBody("classpath:api_schema.yaml", "/api/plor/v1/transaction", "post")}
+     */
+    public JsonTemplate withConversions(ValueConversionPlan conversions) {
+        return new JsonTemplate(root, conversions);
+    }
+
+    static Object freeze(Object node) {
+        if (node instanceof Map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                copy.put(String.valueOf(entry.getKey()), freeze(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(copy);
+        } else if (node instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) node).size());
+            for (Object item : (List<?>) node) {
+                copy.add(freeze(item));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the template itself as a read-only view
+     */
+    public Map<String, Object> getJson() {
+        return root;
+    }
+
+    /**
+     * Populates a new payload from CSV data using dot-notation paths, skipping "response." columns and blank values.
+     * Objects and arrays not touched by the row are shared with the template and are read-only.
+     * @param csvRow Map containing CSV data with dot-notation keys (e.g., "application.applicationId")
+     * @return Populated JSON as Map
+     */
+    public Map<String, Object> populate(Map<String, String> csvRow) {
+        long start = System.nanoTime();
+        Set<Object> owned = newOwnedSet();
+        Map<String, Object> populated = instantiate(owned);
+
+        for (Map.Entry<String, String> entry : csvRow.entrySet()) {
+            String value = entry.getValue();
+            if (value == null || value.trim().isEmpty()) {
+                continue;
+            }
+
+            PathAccessor accessor = PathAccessor.forColumn(entry.getKey());
+            if (accessor.isResponse()) {
+                continue;
+            }
+
+            accessor.set(populated, conversions.converterFor(accessor).convert(value), owned);
+        }
+
+        TimingRecorder.record(TimingRecorder.POPULATE, start);
+        return populated;
+    }
+
+    /**
+     * Plans the conversion of each column once, for {@link #populate(PathAccessor[], ValueConverter[], String[])}
+     */
+    ValueConverter[] converters(PathAccessor[] columns) {
+        ValueConverter[] converters = new ValueConverter[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            converters[i] = columns[i] == null ? null : conversions.converterFor(columns[i]);
+        }
+        return converters;
+    }
+
+    /**
+     * Populates a new payload from pre-compiled columns and their converters; null columns and blank values are skipped
+     */
+    Map<String, Object> populate(PathAccessor[] columns, ValueConverter[] converters, String[] values) {
+        Set<Object> owned = newOwnedSet();
+        Map<String, Object> populated = instantiate(owned);
+
+        for (int i = 0; i < columns.length; i++) {
+            String value = values[i];
+            if (columns[i] == null || value == null || value.trim().isEmpty()) {
+                continue;
+            }
+            columns[i].set(populated, converters[i].convert(value), owned);
+        }
+
+        return populated;
+    }
+
+    private static Set<Object> newOwnedSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private Map<String, Object> instantiate(Set<Object> owned) {
+        Map<String, Object> populated = new LinkedHashMap<>(root);
+        owned.add(populated);
+        return populated;
+    }
+}
@@ -0,0 +1,190 @@
+package com.fico.karate.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A parsed OpenAPI document with its component schemas indexed by name and every local $ref resolved.
+ * All maps and lists handed out are immutable, so one instance can be shared by any number of threads.
+ */
+public final class OpenApiSchema {
+
+    private static final String REF = "$ref";
+
+    private final String source;
+    private final String contentHash;
+    private final Map<String, Object> document;
+    private final Map<String, Object> resolvedDocument;
+    private final Map<String, Map<String, Object>> schemas;
+    private final Map<String, Object> compiled = new ConcurrentHashMap<>();
+
+    OpenApiSchema(String source, String contentHash, Map<String, Object> rawDocument) {
+        this.source = source;
+        this.contentHash = contentHash;
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> frozen = (Map<String, Object>) JsonTemplate.freeze(rawDocument);
+        this.document = frozen;
+
+        Map<String, Object> resolved = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> resolvedRoot = (Map<String, Object>) resolve(frozen, resolved);
+        this.resolvedDocument = resolvedRoot;
+        this.schemas = indexSchemas(resolvedRoot);
+    }
+
+    public String getSource() { return source; }
+    public String getContentHash() { return contentHash; }
+
+    /**
+     * Returns the document exactly as parsed, with $ref entries left in place
+     */
+    public Map<String, Object> getDocument() { return document; }
+
+    /**
+     * Returns the document with every local $ref replaced by the object it points to
+     */
+    public Map<String, Object> getResolvedDocument() { return resolvedDocument; }
+
+    /**
+     * Returns the resolved schemas under components.schemas, keyed by name
+     */
+    public Map<String, Map<String, Object>> getSchemas() { return schemas; }
+
+    /**
+     * @param name Schema name under components.schemas (e.g., "Applicant")
+     * @return The resolved schema, or null if there is no schema with that name
+     */
+    public Map<String, Object> getSchema(String name) {
+        return schemas.get(name);
+    }
+
+    /**
+     * @param apiPath Path under "paths" (e.g., "/api/plor/v1/transaction")
+     * @param method HTTP method in any case (e.g., "post")
+     * @return The resolved application/json request body schema, or null if the operation declares none
+     */
+    public Map<String, Object> getRequestBodySchema(String apiPath, String method) {
+        return jsonSchema(child(operation(apiPath, method), "requestBody"));
+    }
+
+    /**
+     * @param apiPath Path under "paths" (e.g., "/api/plor/v1/transaction")
+     * @param method HTTP method in any case (e.g., "post")
+     * @param status Response status code (e.g., "200")
+     * @return The resolved application/json response schema, or null if the operation declares none
+     */
+    public Map<String, Object> getResponseSchema(String apiPath, String method, String status) {
+        return jsonSchema(child(child(operation(apiPath, method), "responses"), status));
+    }
+
+    private Map<String, Object> operation(String apiPath, String method) {
+        return child(child(child(resolvedDocument, "paths"), apiPath), method.toLowerCase(Locale.ROOT));
+    }
+
+    private static Map<String, Object> jsonSchema(Map<String, Object> bodyOrResponse) {
+        return child(child(child(bodyOrResponse, "content"), "application/json"), "schema");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> child(Map<String, Object> node, String key) {
+        Object value = node == null ? null : node.get(key);
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    /**
+     * Returns an artefact compiled from this schema, such as a validator, computing it on first use.
+     * Compiled artefacts live exactly as long as this parsed version of the schema.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T compiled(String key, Function<String, T> compiler) {
+        return (T) compiled.computeIfAbsent(key, compiler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> indexSchemas(Map<String, Object> resolvedRoot) {
+        Object components = resolvedRoot.get("components");
+        Object schemas = components instanceof Map ? ((Map<String, Object>) components).get("schemas") : null;
+        if (!(schemas instanceof Map)) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Map<String, Object>> index = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) schemas).entrySet()) {
+            if (entry.getValue() instanceof Map) {
+                index.put(entry.getKey(), (Map<String, Object>) entry.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Copies a node, replacing {"$ref": "#/..."} objects by their resolved targets.
+     * Each target is resolved once and shared, which also terminates recursive schemas.
+     */
+    private Object resolve(Object node, Map<String, Object> resolvedRefs) {
+        if (node instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) node;
+            Object ref = map.get(REF);
+            if (ref instanceof String) {
+                return resolveRef((String) ref, resolvedRefs);
+            }
+
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put((String) entry.getKey(), resolve(entry.getValue(), resolvedRefs));
+            }
+            return Collections.unmodifiableMap(copy);
+        } else if (node instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object item : (List<?>) node) {
+                copy.add(resolve(item, resolvedRefs));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return node;
+    }
+
+    private Object resolveRef(String ref, Map<String, Object> resolvedRefs) {
+        Object resolved = resolvedRefs.get(ref);
+        if (resolved != null) {
+            return resolved;
+        }
+
+        Object target = pointer(ref);
+        if (target instanceof Map && !((Map<?, ?>) target).containsKey(REF)) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            Map<String, Object> view = Collections.unmodifiableMap(copy);
+            resolvedRefs.put(ref, view);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) target).entrySet()) {
+                copy.put((String) entry.getKey(), resolve(entry.getValue(), resolvedRefs));
+            }
+            return view;
+        }
+
+        resolvedRefs.put(ref, Collections.emptyMap());
+        resolved = resolve(target, resolvedRefs);
+        resolvedRefs.put(ref, resolved);
+        return resolved;
+    }
+
+    /**
+     * Follows a local JSON pointer such as "#/components/schemas/Address"
+     */
+    private Object pointer(String ref) {
+        if (!ref.startsWith("#/")) {
+            throw new RuntimeException("Unsupported $ref (only local references are supported): " + ref + " in " + source);
+        }
+
+        Object current = document;
+        for (String token : ref.substring(2).split("/")) {
+            String key = token.replace("~1", "/").replace("~0", "~");
+            current = current instanceof Map ? ((Map<?, ?>) current).get(key) : null;
+            if (current == null) {
+                throw new RuntimeException("Unresolvable $ref: " + ref + " in " + source);
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,276 @@
+package com.fico.karate.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-parsed accessor for a dot-notation path such as "applicants[0].creditProfile.creditScore".
+ * Paths are parsed once and cached, so repeated CSV rows sharing the same headers reuse the
+ * same segments instead of re-scanning the path text on every call.
+ */
+public final class PathAccessor {
+
+    public static final String RESPONSE_PREFIX = "response.";
+
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final Map<String, PathAccessor> cache = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final boolean response;
+    private final Segment[] segments;
+
+    private PathAccessor(String path, boolean response, Segment[] segments) {
+        this.path = path;
+        this.response = response;
+        this.segments = segments;
+    }
+
+    /**
+     * Returns the compiled accessor for a CSV column header, parsing it on first use.
+     * Headers starting with "response." are flagged as response columns and compiled without the prefix.
+     * @param header Column header using dot-notation (e.g., "applicants[0].firstName")
+     * @return Immutable accessor for the header
+     */
+    public static PathAccessor forColumn(String header) {
+        PathAccessor accessor = cache.get(header);
+        if (accessor == null) {
+            accessor = compile(header);
+            if (cache.size() < MAX_CACHE_SIZE) {
+                PathAccessor existing = cache.putIfAbsent(header, accessor);
+                if (existing != null) {
+                    accessor = existing;
+                }
+            }
+        }
+        return accessor;
+    }
+
+    private static PathAccessor compile(String header) {
+        boolean response = header.startsWith(RESPONSE_PREFIX);
+        String path = response ? header.substring(RESPONSE_PREFIX.length()) : header;
+        return new PathAccessor(path, response, parseSegments(path));
+    }
+
+    /**
+     * Parses a dot-notation path into segments, splitting on dots outside of brackets
+     */
+    private static Segment[] parseSegments(String path) {
+        List<Segment> segments = new ArrayList<>();
+        int start = 0;
+        boolean inBrackets = false;
+
+        for (int i = 0; i <= path.length(); i++) {
+            char c = i < path.length() ? path.charAt(i) : '.';
+            if (c == '[') {
+                inBrackets = true;
+            } else if (c == ']') {
+                inBrackets = false;
+            } else if (c == '.' && !inBrackets) {
+                if (i > start) {
+                    segments.add(parseSegment(path.substring(start, i)));
+                }
+                start = i + 1;
+            }
+        }
+
+        if (segments.isEmpty()) {
+            throw new RuntimeException("Empty path: " + path);
+        }
+        return segments.toArray(new Segment[0]);
+    }
+
+    /**
+     * Parses a single path part, recognising array access notation like "applicants[0]"
+     */
+    private static Segment parseSegment(String part) {
+        int open = part.indexOf('[');
+        if (open < 0 || part.indexOf(']') < 0) {
+            return new Segment(part, -1);
+        }
+
+        int close = part.length() - 1;
+        if (open == 0 || part.charAt(close) != ']' || close == open + 1) {
+            throw new RuntimeException("Invalid array access notation: " + part);
+        }
+
+        int index = 0;
+        for (int i = open + 1; i < close; i++) {
+            char c = part.charAt(i);
+            if (c < '0' || c > '9' || index > (Integer.MAX_VALUE - 9) / 10) {
+                throw new RuntimeException("Invalid array access notation: " + part);
+            }
+            index = index * 10 + (c - '0');
+        }
+        return new Segment(part.substring(0, open), index);
+    }
+
+    public String getPath() { return path; }
+    public boolean isResponse() { return response; }
+
+    /**
+     * The parsed path parts; shared, so callers must not modify the array
+     */
+    Segment[] getSegments() { return segments; }
+
+    /**
+     * Gets the value at this path from a nested Map structure
+     * @return The value, or null if any part of the path is missing
+     */
+    public Object get(Map<String, Object> json) {
+        Object current = json;
+
+        for (Segment segment : segments) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<?, ?>) current).get(segment.field);
+
+            if (segment.index >= 0) {
+                if (!(current instanceof List)) {
+                    return null;
+                }
+                List<?> list = (List<?>) current;
+                current = segment.index < list.size() ? list.get(segment.index) : null;
+            }
+
+            if (current == null) {
+                return null;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Sets a value at this path in a nested Map structure, creating intermediate objects and arrays as needed
+     */
+    public void set(Map<String, Object> json, Object value) {
+        set(json, value, null);
+    }
+
+    /**
+     * Sets a value at this path. When {@code owned} is non-null the structure is treated as copy-on-write:
+     * any container on the path that is not in {@code owned} is shared with a template, so it is replaced by
+     * a mutable shallow copy before being written to. Containers created or copied here are added to {@code owned}.
+     */
+    void set(Map<String, Object> json, Object value, Set<Object> owned) {
+        Object current = json;
+        int last = segments.length - 1;
+
+        for (int i = 0; i < last; i++) {
+            Segment segment = segments[i];
+            if (!(current instanceof Map)) {
+                throw new RuntimeException("Cannot navigate to path: " + path + " at part: " + segment.field);
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> currentMap = (Map<String, Object>) current;
+
+            if (segment.index >= 0) {
+                current = navigateToArrayElement(currentMap, segment, owned);
+            } else {
+                current = currentMap.get(segment.field);
+                if (current == null && !currentMap.containsKey(segment.field)) {
+                    current = created(new HashMap<String, Object>(), owned);
+                    currentMap.put(segment.field, current);
+                } else if (owned != null && current instanceof Map && !owned.contains(current)) {
+                    current = copyOf(current, owned);
+                    currentMap.put(segment.field, current);
+                }
+            }
+        }
+
+        Segment finalSegment = segments[last];
+        if (!(current instanceof Map)) {
+            throw new RuntimeException("Cannot set value at path: " + path);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> currentMap = (Map<String, Object>) current;
+
+        if (finalSegment.index >= 0) {
+            Object arrayObj = currentMap.get(finalSegment.field);
+            if (arrayObj instanceof List) {
+                if (owned != null && !owned.contains(arrayObj)) {
+                    arrayObj = copyOf(arrayObj, owned);
+                    currentMap.put(finalSegment.field, arrayObj);
+                }
+                @SuppressWarnings("unchecked")
+                List<Object> list = (List<Object>) arrayObj;
+                padList(list, finalSegment.index, owned);
+                list.set(finalSegment.index, value);
+            }
+        } else {
+            currentMap.put(finalSegment.field, value);
+        }
+    }
+
+    /**
+     * Navigates to an array element, creating the array and padding elements if needed
+     */
+    private static Object navigateToArrayElement(Map<String, Object> currentMap, Segment segment, Set<Object> owned) {
+        Object arrayObj = currentMap.get(segment.field);
+        if (arrayObj == null) {
+            arrayObj = created(new ArrayList<>(), owned);
+            currentMap.put(segment.field, arrayObj);
+        } else if (arrayObj instanceof List && owned != null && !owned.contains(arrayObj)) {
+            arrayObj = copyOf(arrayObj, owned);
+            currentMap.put(segment.field, arrayObj);
+        }
+
+        if (arrayObj instanceof List) {
+            @SuppressWarnings("unchecked")
+            List<Object> list = (List<Object>) arrayObj;
+            padList(list, segment.index, owned);
+
+            Object element = list.get(segment.index);
+            if (owned != null && element != null && !owned.contains(element)) {
+                element = copyOf(element, owned);
+                list.set(segment.index, element);
+            }
+            return element;
+        }
+        return null;
+    }
+
+    private static void padList(List<Object> list, int index, Set<Object> owned) {
+        while (list.size() <= index) {
+            list.add(created(new HashMap<String, Object>(), owned));
+        }
+    }
+
+    private static Object created(Object container, Set<Object> owned) {
+        if (owned != null) {
+            owned.add(container);
+        }
+        return container;
+    }
+
+    /**
+     * Returns a mutable shallow copy of a shared container; scalars are returned unchanged
+     */
+    private static Object copyOf(Object node, Set<Object> owned) {
+        if (node instanceof Map) {
+            return created(new LinkedHashMap<>((Map<?, ?>) node), owned);
+        } else if (node instanceof List) {
+            return created(new ArrayList<>((List<?>) node), owned);
+        }
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return response ? RESPONSE_PREFIX + path : path;
+    }
+
+    /**
+     * A single path part: a field name, optionally followed by an array index
+     */
+    static final class Segment {
+        final String field;
+        final int index;
+
+        Segment(String field, int index) {
+            this.field = field;
+            this.index = index;
+        }
+    }
+}
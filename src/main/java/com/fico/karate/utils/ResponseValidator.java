@@ -0,0 +1,329 @@
+package com.fico.karate.utils;
+
+import java.util.*;
+
+/**
+ * Validates responses against the "response." columns of CSV rows. The expected paths of a set of
+ * column headers are compiled once into a prefix trie, so each response is walked once per row and
+ * paths sharing a prefix (e.g., "creditDecisioning.decisioning.subProductDecisions[0]") resolve it
+ * only once. Numbers are compared by value, so an expected "0" matches an actual 0.0.
+ * Every row validated is added to the run's {@link ValidationSummary}.
+ */
+public final class ResponseValidator {
+
+    /**
+     * {@code FAIL_FAST} stops at the first mismatch; {@code COLLECT_ALL} reports every mismatching column
+     */
+    public enum Mode {
+        FAIL_FAST, COLLECT_ALL;
+
+        /**
+         * @param name "fail-fast" or "collect-all" in any case; null or blank means collect-all
+         */
+        public static Mode of(String name) {
+            if (name == null || name.isBlank()) {
+                return COLLECT_ALL;
+            }
+            switch (name.trim().toLowerCase(Locale.ROOT).replace('_', '-')) {
+                case "fail-fast":
+                    return FAIL_FAST;
+                case "collect-all":
+                    return COLLECT_ALL;
+                default:
+                    throw new RuntimeException("Validation mode must be fail-fast or collect-all: " + name);
+            }
+        }
+    }
+
+    private static final int MAX_CACHE_SIZE = 256;
+    /** Copy-on-write, so lookups read a snapshot without locking */
+    private static volatile ResponseValidator[] cache = new ResponseValidator[0];
+
+    private final int headerHash;
+    private final String[] headers;
+    private final String[] paths;
+    private final Node root = new Node(null, -1);
+
+    private ResponseValidator(List<String> headers, int headerHash) {
+        this.headerHash = headerHash;
+        this.headers = headers.toArray(new String[0]);
+        this.paths = new String[this.headers.length];
+        for (int column = 0; column < this.headers.length; column++) {
+            PathAccessor accessor = PathAccessor.forColumn(this.headers[column]);
+            paths[column] = accessor.getPath();
+            root.add(accessor.getSegments(), 0, column);
+        }
+    }
+
+    /**
+     * Returns the compiled validator for the "response." columns among a set of CSV headers. The lookup
+     * compares the headers in place, so validating a row allocates nothing once its columns are compiled.
+     */
+    public static ResponseValidator forColumns(Collection<String> headers) {
+        int headerHash = headerHash(headers);
+        for (ResponseValidator validator : cache) {
+            if (validator.headerHash == headerHash && validator.hasHeaders(headers)) {
+                return validator;
+            }
+        }
+        return compile(headers, headerHash);
+    }
+
+    private static synchronized ResponseValidator compile(Collection<String> headers, int headerHash) {
+        for (ResponseValidator validator : cache) {
+            if (validator.headerHash == headerHash && validator.hasHeaders(headers)) {
+                return validator;
+            }
+        }
+
+        List<String> responseHeaders = new ArrayList<>();
+        for (String header : headers) {
+            if (header.startsWith(PathAccessor.RESPONSE_PREFIX)) {
+                responseHeaders.add(header);
+            }
+        }
+        ResponseValidator validator = new ResponseValidator(responseHeaders, headerHash);
+        if (cache.length < MAX_CACHE_SIZE) {
+            ResponseValidator[] grown = Arrays.copyOf(cache, cache.length + 1);
+            grown[cache.length] = validator;
+            cache = grown;
+        }
+        return validator;
+    }
+
+    /**
+     * Hash of the "response." headers in iteration order, as List.hashCode would compute it
+     */
+    private static int headerHash(Collection<String> headers) {
+        int hash = 1;
+        for (String header : headers) {
+            if (header.startsWith(PathAccessor.RESPONSE_PREFIX)) {
+                hash = 31 * hash + header.hashCode();
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Whether the "response." headers among {@code candidate} are exactly this validator's, in the same order
+     */
+    private boolean hasHeaders(Collection<String> candidate) {
+        int column = 0;
+        for (String header : candidate) {
+            if (header.startsWith(PathAccessor.RESPONSE_PREFIX)) {
+                if (column == headers.length || !headers[column].equals(header)) {
+                    return false;
+                }
+                column++;
+            }
+        }
+        return column == headers.length;
+    }
+
+    /**
+     * Validates one response against the "response." columns of its CSV row; blank cells are not checked
+     */
+    public static Result validate(Map<String, Object> responseJson, Map<String, String> csvRow, Mode mode) {
+        long start = System.nanoTime();
+        Result result = forColumns(csvRow.keySet()).check(responseJson, csvRow, mode);
+        TimingRecorder.record(TimingRecorder.VALIDATE, start);
+        return result;
+    }
+
+    /**
+     * Validates responses against their CSV rows, pairing them by position
+     * @return One message per mismatch, prefixed with the row number; in fail-fast mode at most one
+     */
+    public static List<String> validateAll(List<Map<String, Object>> responses, List<Map<String, String>> csvRows, Mode mode) {
+        if (responses.size() != csvRows.size()) {
+            throw new RuntimeException("Got " + responses.size() + " responses for " + csvRows.size() + " CSV rows");
+        }
+
+        List<String> messages = new ArrayList<>();
+        for (int row = 0; row < csvRows.size(); row++) {
+            Result result = validate(responses.get(row), csvRows.get(row), mode);
+            for (Mismatch mismatch : result.getMismatches()) {
+                messages.add("row " + row + ": " + mismatch);
+            }
+            if (mode == Mode.FAIL_FAST && !result.isPassed()) {
+                break;
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Walks the response along the trie, comparing every leaf with the row's expected value
+     */
+    public Result check(Map<String, Object> responseJson, Map<String, String> csvRow, Mode mode) {
+        Result result = new Result();
+        walk(root, responseJson, csvRow, mode, result);
+        ValidationSummary.record(result);
+        return result;
+    }
+
+    private boolean walk(Node node, Object container, Map<String, String> csvRow, Mode mode, Result result) {
+        for (Node child : node.children) {
+            Object value = child.resolve(container);
+            if (child.column >= 0 && !compare(child.column, value, csvRow, mode, result)) {
+                return false;
+            }
+            if (child.children.length > 0 && !walk(child, value, csvRow, mode, result)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the walk should go on
+     */
+    private boolean compare(int column, Object actual, Map<String, String> csvRow, Mode mode, Result result) {
+        String expected = csvRow.get(headers[column]);
+        if (expected == null || expected.trim().isEmpty()) {
+            return true;
+        }
+
+        result.checked++;
+        if (matches(actual, expected)) {
+            return true;
+        }
+        result.mismatches.add(new Mismatch(paths[column], expected, actual, actual == null ? "Missing" : "Value mismatch"));
+        return mode == Mode.COLLECT_ALL;
+    }
+
+    /**
+     * Compares an actual JSON value with an expected CSV cell; numbers are compared by value whatever their type
+     */
+    static boolean matches(Object actual, String expected) {
+        if (actual == null) {
+            return false;
+        }
+        if (actual instanceof Number) {
+            Object expectedValue = ValueConverter.NUMBER.convert(expected);
+            return expectedValue instanceof Number && numbersEqual((Number) actual, (Number) expectedValue);
+        }
+        if (actual instanceof Boolean) {
+            return expected.trim().equalsIgnoreCase(actual.toString());
+        }
+        return expected.equals(actual.toString());
+    }
+
+    private static boolean numbersEqual(Number actual, Number expected) {
+        if (isIntegral(actual) && isIntegral(expected)) {
+            return actual.longValue() == expected.longValue();
+        }
+        return Double.compare(actual.doubleValue(), expected.doubleValue()) == 0;
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * One step of the expected paths: a field, optionally indexed, and the column ending here if any
+     */
+    private static final class Node {
+        final String field;
+        final int index;
+        int column = -1;
+        Node[] children = new Node[0];
+
+        Node(String field, int index) {
+            this.field = field;
+            this.index = index;
+        }
+
+        void add(PathAccessor.Segment[] segments, int depth, int leafColumn) {
+            PathAccessor.Segment segment = segments[depth];
+            Node child = null;
+            for (Node candidate : children) {
+                if (candidate.field.equals(segment.field) && candidate.index == segment.index) {
+                    child = candidate;
+                    break;
+                }
+            }
+            if (child == null) {
+                child = new Node(segment.field, segment.index);
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+
+            if (depth == segments.length - 1) {
+                child.column = leafColumn;
+            } else {
+                child.add(segments, depth + 1, leafColumn);
+            }
+        }
+
+        Object resolve(Object container) {
+            if (!(container instanceof Map)) {
+                return null;
+            }
+            Object value = ((Map<?, ?>) container).get(field);
+            if (index < 0) {
+                return value;
+            }
+            if (!(value instanceof List)) {
+                return null;
+            }
+            List<?> list = (List<?>) value;
+            return index < list.size() ? list.get(index) : null;
+        }
+    }
+
+    /**
+     * Outcome of validating one response
+     */
+    public static class Result {
+        private int checked;
+        private final List<Mismatch> mismatches = new ArrayList<>(2);
+
+        public boolean isPassed() { return mismatches.isEmpty(); }
+        public int getChecked() { return checked; }
+        public List<Mismatch> getMismatches() { return mismatches; }
+
+        /**
+         * One line per mismatch, for {@code match ... == []} in feature files
+         */
+        public List<String> getMessages() {
+            List<String> messages = new ArrayList<>(mismatches.size());
+            for (Mismatch mismatch : mismatches) {
+                messages.add(mismatch.toString());
+            }
+            return messages;
+        }
+
+        @Override
+        public String toString() {
+            return isPassed() ? "Passed " + checked + " checks" : mismatches.size() + " of " + checked + " checks failed: " + getMessages();
+        }
+    }
+
+    /**
+     * A response value that differs from the CSV row's expectation
+     */
+    public static class Mismatch {
+        private final String path;
+        private final String expectedValue;
+        private final Object actualValue;
+        private final String message;
+
+        Mismatch(String path, String expectedValue, Object actualValue, String message) {
+            this.path = path;
+            this.expectedValue = expectedValue;
+            this.actualValue = actualValue;
+            this.message = message;
+        }
+
+        public String getPath() { return path; }
+        public String getExpectedValue() { return expectedValue; }
+        public Object getActualValue() { return actualValue; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return path + ": " + message + " (expected " + expectedValue + ", actual " + actualValue + ")";
+        }
+    }
+}
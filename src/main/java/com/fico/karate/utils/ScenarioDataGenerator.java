@@ -0,0 +1,543 @@
+package com.fico.karate.utils;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Generates synthetic scenario rows that satisfy a request body schema: enums, minimum/maximum (with exclusive
+ * bounds), minLength/maxLength, minItems/maxItems, the date, date-time and email formats, and simple patterns
+ * such as "^[0-9]{9}$". Combinations that cannot be honoured, such as a length limit on an email, a pattern
+ * that cannot fit the length limits or bounds no value satisfies, fail when the columns are planned rather than
+ * producing rows that {@link SchemaValidator} rejects. Columns are the dot-notation
+ * paths of every scalar property, as in plor_test_scenarios.csv, and can be written as CSV rows or as
+ * populated NDJSON payloads.
+ *
+ * Each row is drawn from its own random stream derived from the seed and the row number, so the output
+ * is identical for a given seed whatever the number of threads. Rows are rendered in chunks on a pool
+ * of threads and written in order:
+ *
+ * <pre>
+ * ./gradlew generateScenarioData -Prows=1000000 -Pseed=42 -Pformat=ndjson -Poutput=build/scenarios.ndjson
+ * </pre>
+ */
+public final class ScenarioDataGenerator {
+
+    public enum Format { CSV, NDJSON }
+
+    static final int CHUNK_ROWS = 4096;
+
+    private static final String TEST_CASE_COLUMN = "testCaseName";
+    private static final int MAX_DEPTH = 8;
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Bob", "Alice", "Charlie", "David", "Emma", "Frank", "Grace", "Henry"};
+    private static final String[] LAST_NAMES = {"Doe", "Smith", "Johnson", "Wilson", "Brown", "Miller", "Davis", "Pending", "Risk", "Garcia"};
+    private static final LocalDate EARLIEST_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+    private static final int BIRTH_DATE_DAYS = 65 * 365;
+    private static final long TIMESTAMP_START = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+    private static final long TIMESTAMP_SECONDS = 2L * 365 * 24 * 3600;
+
+    private final long seed;
+    private final Column[] columns;
+
+    private ScenarioDataGenerator(long seed, List<Column> columns) {
+        this.seed = seed;
+        this.columns = columns.toArray(new Column[0]);
+    }
+
+    /**
+     * Plans the columns of an operation's request body
+     * @param schemaPath Classpath location of the OpenAPI file (e.g., "classpath:api_schema.yaml")
+     * @param apiPath Path under "paths" (e.g., "/api/plor/v1/transaction")
+     * @param method HTTP method in any case (e.g., "post")
+     * @param seed Seed of the generated data
+     * @param arrayItems Items generated for each array of objects (e.g., applicants)
+     */
+    public static ScenarioDataGenerator forRequestBody(String schemaPath, String apiPath, String method, long seed, int arrayItems) {
+        Map<String, Object> schema = SchemaRegistry.get(schemaPath).getRequestBodySchema(apiPath, method);
+        if (schema == null) {
+            throw new RuntimeException("No schema defined for request body of " + method + " " + apiPath);
+        }
+        List<Column> columns = new ArrayList<>();
+        plan(schema, "", arrayItems, 0, columns);
+        if (columns.isEmpty()) {
+            throw new RuntimeException("Request body of " + method + " " + apiPath + " has no scalar properties");
+        }
+        return new ScenarioDataGenerator(seed, columns);
+    }
+
+    /**
+     * Collects a column for every scalar property reachable through objects and arrays of objects
+     */
+    private static void plan(Map<?, ?> schema, String prefix, int arrayItems, int depth, List<Column> columns) {
+        Object properties = schema.get("properties");
+        if (!(properties instanceof Map) || depth > MAX_DEPTH) {
+            return;
+        }
+
+        for (Map.Entry<?, ?> property : ((Map<?, ?>) properties).entrySet()) {
+            if (!(property.getValue() instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> propertySchema = (Map<?, ?>) property.getValue();
+            String path = prefix + property.getKey();
+            Object type = propertySchema.get("type");
+
+            if ("array".equals(type)) {
+                Object items = propertySchema.get("items");
+                if (items instanceof Map && ((Map<?, ?>) items).get("properties") instanceof Map) {
+                    Object minItems = propertySchema.get("minItems");
+                    Object maxItems = propertySchema.get("maxItems");
+                    if (minItems instanceof Number && arrayItems < ((Number) minItems).intValue()
+                            || maxItems instanceof Number && arrayItems > ((Number) maxItems).intValue()) {
+                        throw new RuntimeException(arrayItems + " array items are outside minItems/maxItems of " + path);
+                    }
+                    for (int item = 0; item < arrayItems; item++) {
+                        plan((Map<?, ?>) items, path + "[" + item + "].", arrayItems, depth + 1, columns);
+                    }
+                }
+            } else if ("object".equals(type) || propertySchema.get("properties") instanceof Map) {
+                plan(propertySchema, path + ".", arrayItems, depth + 1, columns);
+            } else {
+                columns.add(new Column(path, String.valueOf(property.getKey()), propertySchema));
+            }
+        }
+    }
+
+    /**
+     * Column headers of {@link #row(long)}: the test case name, then one dot-notation path per scalar property
+     */
+    public String[] getHeaders() {
+        String[] headers = new String[columns.length + 1];
+        headers[0] = TEST_CASE_COLUMN;
+        for (int i = 0; i < columns.length; i++) {
+            headers[i + 1] = columns[i].path;
+        }
+        return headers;
+    }
+
+    /**
+     * Generates one row; the same seed and index always give the same values
+     * @param index Zero-based row number
+     * @return Cell text aligned with {@link #getHeaders()}
+     */
+    public String[] row(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(index + 1)));
+        String[] values = new String[columns.length + 1];
+        values[0] = "Generated_" + (index + 1);
+        for (int i = 0; i < columns.length; i++) {
+            values[i + 1] = columns[i].generate(random, index);
+        }
+        return values;
+    }
+
+    /**
+     * Murmur3 finaliser, so neighbouring rows and seeds get unrelated random streams
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Writes rows to a file, rendering chunks of {@value #CHUNK_ROWS} rows in parallel
+     * @param output File to create or replace
+     * @param format CSV rows with a header, or NDJSON payloads populated into {@code template}
+     * @param rows Number of rows
+     * @param threads Rendering threads
+     * @param template Payload template for NDJSON; unused for CSV
+     */
+    public void write(Path output, Format format, long rows, int threads, JsonTemplate template) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        PathAccessor[] accessors = new PathAccessor[columns.length + 1];
+        for (int i = 0; i < columns.length; i++) {
+            accessors[i + 1] = PathAccessor.forColumn(columns[i].path);
+        }
+        ValueConverter[] converters = format == Format.NDJSON ? template.converters(accessors) : null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "scenario-data-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+            if (format == Format.CSV) {
+                out.write(csvLine(getHeaders()).getBytes(StandardCharsets.UTF_8));
+            }
+
+            Deque<Future<byte[]>> pending = new ArrayDeque<>();
+            for (long start = 0; start < rows || !pending.isEmpty(); ) {
+                while (start < rows && pending.size() < threads * 2) {
+                    long first = start;
+                    long last = Math.min(rows, start + CHUNK_ROWS);
+                    pending.add(executor.submit(() -> render(format, first, last, template, accessors, converters)));
+                    start = last;
+                }
+                out.write(await(pending.removeFirst()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private byte[] render(Format format, long first, long last, JsonTemplate template,
+                          PathAccessor[] accessors, ValueConverter[] converters) throws IOException {
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream((int) (last - first) * 256);
+        for (long index = first; index < last; index++) {
+            String[] values = row(index);
+            if (format == Format.CSV) {
+                chunk.write(csvLine(values).getBytes(StandardCharsets.UTF_8));
+            } else {
+                YamlSchemaUtils.jsonMapper.writeValue(chunk, template.populate(accessors, converters, values));
+                chunk.write('\n');
+            }
+        }
+        return chunk.toByteArray();
+    }
+
+    private static byte[] await(Future<byte[]> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating scenario data", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to generate scenario data: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Joins cells into a CSV line, quoting those with commas, quotes or line breaks
+     */
+    static String csvLine(String[] values) {
+        StringBuilder line = new StringBuilder(values.length * 12);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = values[i];
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.append('\n').toString();
+    }
+
+    /**
+     * Generates a file from the command line:
+     * --rows, --seed, --format (csv or ndjson), --output, --threads, --array-items,
+     * --schema, --api-path, --method and --template (classpath locations or paths)
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new RuntimeException("Expected --option value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+
+        long rows = Long.parseLong(options.getOrDefault("rows", "10000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Format format = Format.valueOf(options.getOrDefault("format", "csv").toUpperCase(Locale.ROOT));
+        Path output = Path.of(options.getOrDefault("output", "build/generated/scenarios." + format.name().toLowerCase(Locale.ROOT)));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int arrayItems = Integer.parseInt(options.getOrDefault("array-items", "1"));
+        String schemaPath = options.getOrDefault("schema", "classpath:api_schema.yaml");
+        String apiPath = options.getOrDefault("api-path", "/api/plor/v1/transaction");
+        String method = options.getOrDefault("method", "post");
+
+        JsonTemplate template = null;
+        if (format == Format.NDJSON) {
+            template = JsonTemplate.load(options.getOrDefault("template", "classpath:com/fico/tests/features/plor/plor_api_template.json"))
+                    .withConversions(ValueConversionPlan.forRequestBody(schemaPath, apiPath, method));
+        }
+
+        long started = System.nanoTime();
+        forRequestBody(schemaPath, apiPath, method, seed, arrayItems).write(output, format, rows, threads, template);
+        System.out.printf("Wrote %d %s rows (seed %d) to %s in %d ms%n", rows, format.name().toLowerCase(Locale.ROOT), seed,
+                output.toAbsolutePath(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * One scalar property and how to draw its values
+     */
+    private static final class Column {
+        final String path;
+        final String name;
+        final String type;
+        final String format;
+        final List<?> values;
+        /** Inclusive bounds of integers, or of numbers in hundredths */
+        final long low;
+        final long high;
+        final int minLength;
+        final int maxLength;
+        final Pattern pattern;
+
+        Column(String path, String name, Map<?, ?> schema) {
+            this.path = path;
+            this.name = name;
+            this.type = String.valueOf(schema.get("type"));
+            this.format = schema.get("format") instanceof String ? (String) schema.get("format") : null;
+            this.values = schema.get("enum") instanceof List ? (List<?>) schema.get("enum") : null;
+            this.pattern = schema.get("pattern") instanceof String ? Pattern.parse((String) schema.get("pattern")) : null;
+            this.minLength = schema.get("minLength") instanceof Number ? ((Number) schema.get("minLength")).intValue() : 0;
+            this.maxLength = schema.get("maxLength") instanceof Number ? ((Number) schema.get("maxLength")).intValue() : Integer.MAX_VALUE;
+
+            // Integers are drawn directly and numbers as hundredths. A missing minimum is 0, or a fixed span below a
+            // negative maximum; a missing maximum is a fixed span above the minimum
+            int scale = "number".equals(type) ? 2 : 0;
+            long span = "number".equals(type) ? 10_000_000 : 1_000;
+            Long lower = bound(schema.get("minimum"), Boolean.TRUE.equals(schema.get("exclusiveMinimum")), scale, true);
+            Long upper = bound(schema.get("maximum"), Boolean.TRUE.equals(schema.get("exclusiveMaximum")), scale, false);
+            this.low = lower != null ? lower : upper != null && upper < 0 ? upper - span : 0;
+            this.high = upper != null ? upper : low + span;
+            if (values == null && ("integer".equals(type) || "number".equals(type)) && low > high) {
+                throw new RuntimeException("No " + type + " satisfies the minimum and maximum of " + path);
+            }
+            if (values == null && "string".equals(type)) {
+                checkLengths();
+            }
+        }
+
+        /**
+         * Smallest (or largest) value in units of 10^-scale that satisfies a minimum (or maximum)
+         */
+        private static Long bound(Object limit, boolean exclusive, int scale, boolean lower) {
+            if (!(limit instanceof Number)) {
+                return null;
+            }
+            BigDecimal scaled = new BigDecimal(limit.toString()).movePointRight(scale);
+            BigDecimal rounded = scaled.setScale(0, lower ? RoundingMode.CEILING : RoundingMode.FLOOR);
+            if (exclusive && rounded.compareTo(scaled) == 0) {
+                rounded = lower ? rounded.add(BigDecimal.ONE) : rounded.subtract(BigDecimal.ONE);
+            }
+            return rounded.longValueExact();
+        }
+
+        /**
+         * Fails for length limits that values drawn from a pattern or format could break; free text is fitted instead
+         */
+        private void checkLengths() {
+            if (minLength > maxLength) {
+                throw new RuntimeException("minLength is above maxLength for " + path);
+            }
+            if (minLength == 0 && maxLength == Integer.MAX_VALUE) {
+                return;
+            }
+            if (pattern != null) {
+                if (pattern.minLength() < minLength || pattern.maxLength() > maxLength) {
+                    throw new RuntimeException("Pattern of " + path + " can generate values outside minLength/maxLength");
+                }
+            } else if ("date".equals(format) || "date-time".equals(format)) {
+                int length = "date".equals(format) ? 10 : 20;
+                if (length < minLength || length > maxLength) {
+                    throw new RuntimeException("Values of format " + format + " do not fit minLength/maxLength of " + path);
+                }
+            } else if ("email".equals(format)) {
+                throw new RuntimeException("minLength/maxLength are not supported with format email, for " + path);
+            }
+        }
+
+        String generate(SplittableRandom random, long index) {
+            if (values != null && !values.isEmpty()) {
+                return String.valueOf(values.get(random.nextInt(values.size())));
+            }
+
+            switch (type) {
+                case "integer":
+                    return Long.toString(low + random.nextLong(high - low + 1));
+                case "number":
+                    return BigDecimal.valueOf(low + random.nextLong(high - low + 1), 2).toPlainString();
+                case "boolean":
+                    return Boolean.toString(random.nextBoolean());
+                default:
+                    return string(random, index);
+            }
+        }
+
+        private String string(SplittableRandom random, long index) {
+            if (pattern != null) {
+                return pattern.generate(random);
+            }
+            if ("date".equals(format)) {
+                return EARLIEST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_DAYS)).toString();
+            }
+            if ("date-time".equals(format)) {
+                return DateTimeFormatter.ISO_INSTANT.format(
+                        Instant.ofEpochSecond(TIMESTAMP_START + random.nextLong(TIMESTAMP_SECONDS)).atOffset(ZoneOffset.UTC));
+            }
+            if ("email".equals(format)) {
+                return "applicant" + (index + 1) + "." + random.nextInt(1000) + "@example.com";
+            }
+
+            String text = text(random, index);
+            if (text.length() > maxLength) {
+                return text.substring(0, maxLength);
+            }
+            if (text.length() < minLength) {
+                return text + "x".repeat(minLength - text.length());
+            }
+            return text;
+        }
+
+        private String text(SplittableRandom random, long index) {
+            switch (name) {
+                case "firstName":
+                    return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                case "lastName":
+                    return LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                case "applicationId":
+                    return "APP-" + (index + 1);
+                case "productCode":
+                    return "CC001";
+                case "bomVersionId":
+                    return "v1.0";
+                default:
+                    return name + "-" + (index + 1);
+            }
+        }
+    }
+
+    /**
+     * Generator for simple regular expressions: a sequence of literals, \d and [...] classes, each with an
+     * optional {n} or {n,m} count, such as "^[0-9]{9}$" or "^[A-Z]{2}-\d{4,6}$"
+     */
+    static final class Pattern {
+        private final char[][] alphabets;
+        private final int[] minCounts;
+        private final int[] maxCounts;
+
+        private Pattern(List<char[]> alphabets, List<int[]> counts) {
+            this.alphabets = alphabets.toArray(new char[0][]);
+            this.minCounts = new int[counts.size()];
+            this.maxCounts = new int[counts.size()];
+            for (int i = 0; i < counts.size(); i++) {
+                minCounts[i] = counts.get(i)[0];
+                maxCounts[i] = counts.get(i)[1];
+            }
+        }
+
+        static Pattern parse(String regex) {
+            String body = regex.startsWith("^") ? regex.substring(1) : regex;
+            body = body.endsWith("$") ? body.substring(0, body.length() - 1) : body;
+
+            List<char[]> alphabets = new ArrayList<>();
+            List<int[]> counts = new ArrayList<>();
+            int i = 0;
+            while (i < body.length()) {
+                char c = body.charAt(i);
+                char[] alphabet;
+                if (c == '[') {
+                    int close = body.indexOf(']', i + 1);
+                    if (close < 0) {
+                        throw unsupported(regex);
+                    }
+                    alphabet = characterClass(body.substring(i + 1, close), regex);
+                    i = close + 1;
+                } else if (c == '\\' && i + 1 < body.length()) {
+                    char escaped = body.charAt(i + 1);
+                    alphabet = escaped == 'd' ? characterClass("0-9", regex) : new char[] {escaped};
+                    i += 2;
+                } else if ("()|*+?.{}".indexOf(c) >= 0) {
+                    throw unsupported(regex);
+                } else {
+                    alphabet = new char[] {c};
+                    i++;
+                }
+
+                int[] count = {1, 1};
+                if (i < body.length() && body.charAt(i) == '{') {
+                    int close = body.indexOf('}', i);
+                    if (close < 0) {
+                        throw unsupported(regex);
+                    }
+                    String[] bounds = body.substring(i + 1, close).split(",", -1);
+                    if (bounds.length > 2 || !ValueConverter.isInteger(bounds[0])
+                            || bounds.length == 2 && !ValueConverter.isInteger(bounds[1])) {
+                        throw unsupported(regex);
+                    }
+                    count[0] = Integer.parseInt(bounds[0]);
+                    count[1] = bounds.length == 2 ? Integer.parseInt(bounds[1]) : count[0];
+                    if (count[0] < 0 || count[1] < count[0]) {
+                        throw unsupported(regex);
+                    }
+                    i = close + 1;
+                }
+                alphabets.add(alphabet);
+                counts.add(count);
+            }
+            return new Pattern(alphabets, counts);
+        }
+
+        private static char[] characterClass(String members, String regex) {
+            StringBuilder alphabet = new StringBuilder();
+            for (int i = 0; i < members.length(); i++) {
+                char from = members.charAt(i);
+                if (from == '^' && i == 0) {
+                    throw unsupported(regex);
+                }
+                if (i + 2 < members.length() && members.charAt(i + 1) == '-') {
+                    // An int counter, since a char one would wrap around instead of passing a range ending at U+FFFF
+                    for (int c = from; c <= members.charAt(i + 2); c++) {
+                        alphabet.append((char) c);
+                    }
+                    i += 2;
+                } else {
+                    alphabet.append(from);
+                }
+            }
+            if (alphabet.length() == 0) {
+                throw unsupported(regex);
+            }
+            return alphabet.toString().toCharArray();
+        }
+
+        private static RuntimeException unsupported(String regex) {
+            return new RuntimeException("Cannot generate values for pattern (only literals, \\d and [...] classes with {n,m} are supported): " + regex);
+        }
+
+        int minLength() {
+            long length = 0;
+            for (int count : minCounts) {
+                length += count;
+            }
+            return (int) Math.min(length, Integer.MAX_VALUE);
+        }
+
+        int maxLength() {
+            long length = 0;
+            for (int count : maxCounts) {
+                length += count;
+            }
+            return (int) Math.min(length, Integer.MAX_VALUE);
+        }
+
+        String generate(SplittableRandom random) {
+            StringBuilder value = new StringBuilder();
+            for (int i = 0; i < alphabets.length; i++) {
+                int count = minCounts[i] + random.nextInt(maxCounts[i] - minCounts[i] + 1);
+                for (int j = 0; j < count; j++) {
+                    value.append(alphabets[i][random.nextInt(alphabets[i].length)]);
+                }
+            }
+            return value.toString();
+        }
+    }
+}
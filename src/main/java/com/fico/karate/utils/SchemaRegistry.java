@@ -0,0 +1,95 @@
+package com.fico.karate.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of parsed OpenAPI schemas. Each schema file is parsed once and shared by all
+ * Karate threads; it is only re-parsed when the bytes on the classpath change, which is checked
+ * at most once per {@link #CHECK_INTERVAL_MILLIS} per file.
+ */
+public final class SchemaRegistry {
+
+    static final long CHECK_INTERVAL_MILLIS = 2000;
+
+    private static final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+    private static final Map<String, Entry> registry = new ConcurrentHashMap<>();
+
+    private SchemaRegistry() {
+    }
+
+    /**
+     * Returns the parsed schema for a YAML file, loading it on first use
+     * @param filePath Classpath location of the schema (e.g., "classpath:api_schema.yaml")
+     * @return The shared, immutable schema
+     */
+    public static OpenApiSchema get(String filePath) {
+        Entry entry = registry.get(filePath);
+        long now = System.currentTimeMillis();
+        if (entry != null && now - entry.checkedAt < CHECK_INTERVAL_MILLIS) {
+            return entry.schema;
+        }
+
+        return registry.compute(filePath, (path, current) -> refresh(path, current, now)).schema;
+    }
+
+    /**
+     * Drops all cached schemas, forcing the next lookup to re-read and re-parse them
+     */
+    public static void clear() {
+        registry.clear();
+    }
+
+    private static Entry refresh(String filePath, Entry current, long now) {
+        if (current != null && now - current.checkedAt < CHECK_INTERVAL_MILLIS) {
+            return current;
+        }
+
+        byte[] content = read(filePath);
+        String hash = sha256(content);
+        if (current != null && current.schema.getContentHash().equals(hash)) {
+            return new Entry(current.schema, now);
+        }
+
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> document = yamlMapper.readValue(content, Map.class);
+            return new Entry(new OpenApiSchema(filePath, hash, document), now);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load YAML schema from: " + filePath, e);
+        }
+    }
+
+    private static byte[] read(String filePath) {
+        try (InputStream inputStream = YamlSchemaUtils.openResource(filePath)) {
+            return inputStream.readAllBytes();
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to load YAML schema from: " + filePath, e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read YAML schema from: " + filePath, e);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+        final OpenApiSchema schema;
+        final long checkedAt;
+
+        Entry(OpenApiSchema schema, long checkedAt) {
+            this.schema = schema;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package com.fico.karate.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Validates JSON payloads against an OpenAPI schema. The schema is compiled once into a tree of
+ * validator nodes, and each payload is checked in a single pass that reports every violation.
+ * Supports type, nullable, required, properties, items, enum, minimum/maximum (with exclusive bounds),
+ * minLength/maxLength, pattern, minItems/maxItems, allOf/anyOf/oneOf and the date, date-time and email formats.
+ */
+public final class SchemaValidator {
+
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 1 << 1;
+    private static final int STRING = 1 << 2;
+    private static final int NUMBER = 1 << 3;
+    private static final int INTEGER = 1 << 4;
+    private static final int BOOLEAN = 1 << 5;
+
+    private final Node root;
+
+    private SchemaValidator(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles a resolved schema (no $ref entries) into a validator
+     */
+    public static SchemaValidator compile(Map<String, Object> schema) {
+        return new SchemaValidator(new Compiler().compile(schema));
+    }
+
+    /**
+     * Returns the validator for a named component schema, compiled once per parsed schema file
+     * @param schemaPath Classpath location of the OpenAPI file (e.g., "classpath:api_schema.yaml")
+     * @param schemaName Name under components.schemas (e.g., "Application")
+     */
+    public static SchemaValidator forSchema(String schemaPath, String schemaName) {
+        OpenApiSchema openApi = SchemaRegistry.get(schemaPath);
+        return openApi.compiled("validator:schema:" + schemaName,
+                key -> compile(require(openApi.getSchema(schemaName), "schema " + schemaName)));
+    }
+
+    /**
+     * Returns the validator for an operation's application/json request body
+     */
+    public static SchemaValidator forRequestBody(String schemaPath, String apiPath, String method) {
+        OpenApiSchema openApi = SchemaRegistry.get(schemaPath);
+        return openApi.compiled("validator:request:" + method.toLowerCase(Locale.ROOT) + " " + apiPath,
+                key -> compile(require(openApi.getRequestBodySchema(apiPath, method),
+                        "request body of " + method + " " + apiPath)));
+    }
+
+    /**
+     * Returns the validator for an operation's application/json response with the given status
+     */
+    public static SchemaValidator forResponse(String schemaPath, String apiPath, String method, String status) {
+        OpenApiSchema openApi = SchemaRegistry.get(schemaPath);
+        return openApi.compiled("validator:response:" + status + " " + method.toLowerCase(Locale.ROOT) + " " + apiPath,
+                key -> compile(require(openApi.getResponseSchema(apiPath, method, status),
+                        status + " response of " + method + " " + apiPath)));
+    }
+
+    private static Map<String, Object> require(Map<String, Object> schema, String description) {
+        if (schema == null) {
+            throw new RuntimeException("No schema defined for " + description);
+        }
+        return schema;
+    }
+
+    /**
+     * Validates a payload in one pass
+     * @param payload Parsed JSON (Maps, Lists, Strings, Numbers, Booleans)
+     * @return All violations found, empty if the payload is valid
+     */
+    public List<Violation> validate(Object payload) {
+        List<Violation> violations = new ArrayList<>();
+        root.validate(payload, new PathStack(), violations);
+        return violations;
+    }
+
+    /**
+     * Validates a payload and returns the violations as "path: message" strings, convenient for Karate matches
+     */
+    public List<String> violationMessages(Object payload) {
+        List<Violation> violations = validate(payload);
+        List<String> messages = new ArrayList<>(violations.size());
+        for (Violation violation : violations) {
+            messages.add(violation.toString());
+        }
+        return messages;
+    }
+
+    public boolean isValid(Object payload) {
+        return validate(payload).isEmpty();
+    }
+
+    /**
+     * Builds validator nodes, compiling each distinct schema object once so shared and recursive $refs are reused
+     */
+    private static final class Compiler {
+        private final Map<Map<String, Object>, Node> compiled = new IdentityHashMap<>();
+
+        Node compile(Map<String, Object> schema) {
+            Node node = compiled.get(schema);
+            if (node != null) {
+                return node;
+            }
+            node = new Node();
+            compiled.put(schema, node);
+
+            node.types = types(schema);
+            node.nullable = Boolean.TRUE.equals(schema.get("nullable"));
+
+            Object required = schema.get("required");
+            if (required instanceof List) {
+                node.required = ((List<?>) required).stream().map(String::valueOf).toArray(String[]::new);
+            }
+
+            Object properties = schema.get("properties");
+            if (properties instanceof Map) {
+                node.properties = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) properties).entrySet()) {
+                    if (entry.getValue() instanceof Map) {
+                        node.properties.put(String.valueOf(entry.getKey()), compile(asMap(entry.getValue())));
+                    }
+                }
+            }
+
+            if (schema.get("items") instanceof Map) {
+                node.items = compile(asMap(schema.get("items")));
+            }
+
+            Object enumValues = schema.get("enum");
+            if (enumValues instanceof List) {
+                node.enumValues = new LinkedHashSet<>();
+                for (Object value : (List<?>) enumValues) {
+                    node.enumValues.add(enumKey(value));
+                }
+            }
+
+            node.minimum = number(schema.get("minimum"));
+            node.maximum = number(schema.get("maximum"));
+            node.exclusiveMinimum = Boolean.TRUE.equals(schema.get("exclusiveMinimum"));
+            node.exclusiveMaximum = Boolean.TRUE.equals(schema.get("exclusiveMaximum"));
+            node.minLength = integer(schema.get("minLength"));
+            node.maxLength = integer(schema.get("maxLength"));
+            node.minItems = integer(schema.get("minItems"));
+            node.maxItems = integer(schema.get("maxItems"));
+
+            if (schema.get("pattern") instanceof String) {
+                node.pattern = Pattern.compile((String) schema.get("pattern"));
+            }
+            if (schema.get("format") instanceof String) {
+                node.format = Format.of((String) schema.get("format"));
+            }
+
+            node.allOf = compileAll(schema.get("allOf"));
+            node.anyOf = compileAll(schema.get("anyOf"));
+            node.oneOf = compileAll(schema.get("oneOf"));
+            return node;
+        }
+
+        private Node[] compileAll(Object schemas) {
+            if (!(schemas instanceof List)) {
+                return null;
+            }
+            List<Node> nodes = new ArrayList<>();
+            for (Object schema : (List<?>) schemas) {
+                if (schema instanceof Map) {
+                    nodes.add(compile(asMap(schema)));
+                }
+            }
+            return nodes.toArray(new Node[0]);
+        }
+
+        private static int types(Map<String, Object> schema) {
+            Object type = schema.get("type");
+            if (!(type instanceof String)) {
+                return 0;
+            }
+            switch ((String) type) {
+                case "object": return OBJECT;
+                case "array": return ARRAY;
+                case "string": return STRING;
+                case "number": return NUMBER;
+                case "integer": return INTEGER;
+                case "boolean": return BOOLEAN;
+                default: return 0;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> asMap(Object value) {
+            return (Map<String, Object>) value;
+        }
+
+        private static Double number(Object value) {
+            return value instanceof Number ? ((Number) value).doubleValue() : null;
+        }
+
+        private static int integer(Object value) {
+            return value instanceof Number ? ((Number) value).intValue() : -1;
+        }
+    }
+
+    /**
+     * One compiled schema object; unset constraints are null or -1 and cost nothing at validation time
+     */
+    private static final class Node {
+        int types;
+        boolean nullable;
+        String[] required;
+        Map<String, Node> properties;
+        Node items;
+        Set<Object> enumValues;
+        Double minimum;
+        Double maximum;
+        boolean exclusiveMinimum;
+        boolean exclusiveMaximum;
+        int minLength = -1;
+        int maxLength = -1;
+        int minItems = -1;
+        int maxItems = -1;
+        Pattern pattern;
+        Format format;
+        Node[] allOf;
+        Node[] anyOf;
+        Node[] oneOf;
+
+        void validate(Object value, PathStack path, List<Violation> violations) {
+            if (value == null) {
+                if (types != 0 && !nullable) {
+                    violations.add(new Violation(path.toString(), "expected " + typeName() + " but was null"));
+                }
+                return;
+            }
+
+            if (types != 0 && !matchesType(value)) {
+                violations.add(new Violation(path.toString(),
+                        "expected " + typeName() + " but was " + value.getClass().getSimpleName()));
+                return;
+            }
+
+            if (enumValues != null && !enumValues.contains(enumKey(value))) {
+                violations.add(new Violation(path.toString(), "value '" + value + "' is not one of " + enumValues));
+            }
+
+            if (value instanceof Map) {
+                validateObject((Map<?, ?>) value, path, violations);
+            } else if (value instanceof List) {
+                validateArray((List<?>) value, path, violations);
+            } else if (value instanceof String) {
+                validateString((String) value, path, violations);
+            } else if (value instanceof Number) {
+                validateNumber((Number) value, path, violations);
+            }
+
+            validateComposition(value, path, violations);
+        }
+
+        private void validateObject(Map<?, ?> object, PathStack path, List<Violation> violations) {
+            if (required != null) {
+                for (String name : required) {
+                    if (!object.containsKey(name)) {
+                        path.push(name);
+                        violations.add(new Violation(path.toString(), "required property is missing"));
+                        path.pop();
+                    }
+                }
+            }
+
+            if (properties != null) {
+                for (Map.Entry<String, Node> property : properties.entrySet()) {
+                    Object child = object.get(property.getKey());
+                    if (child != null || object.containsKey(property.getKey())) {
+                        path.push(property.getKey());
+                        property.getValue().validate(child, path, violations);
+                        path.pop();
+                    }
+                }
+            }
+        }
+
+        private void validateArray(List<?> array, PathStack path, List<Violation> violations) {
+            if (minItems >= 0 && array.size() < minItems) {
+                violations.add(new Violation(path.toString(), "expected at least " + minItems + " items but had " + array.size()));
+            }
+            if (maxItems >= 0 && array.size() > maxItems) {
+                violations.add(new Violation(path.toString(), "expected at most " + maxItems + " items but had " + array.size()));
+            }
+
+            if (items != null) {
+                for (int i = 0; i < array.size(); i++) {
+                    path.push(i);
+                    items.validate(array.get(i), path, violations);
+                    path.pop();
+                }
+            }
+        }
+
+        private void validateString(String string, PathStack path, List<Violation> violations) {
+            if (minLength >= 0 && string.length() < minLength) {
+                violations.add(new Violation(path.toString(), "expected length >= " + minLength + " but was " + string.length()));
+            }
+            if (maxLength >= 0 && string.length() > maxLength) {
+                violations.add(new Violation(path.toString(), "expected length <= " + maxLength + " but was " + string.length()));
+            }
+            if (pattern != null && !pattern.matcher(string).find()) {
+                violations.add(new Violation(path.toString(), "value '" + string + "' does not match pattern " + pattern));
+            }
+            if (format != null && !format.matches(string)) {
+                violations.add(new Violation(path.toString(), "value '" + string + "' is not a valid " + format.name));
+            }
+        }
+
+        private void validateNumber(Number number, PathStack path, List<Violation> violations) {
+            double value = number.doubleValue();
+            if (minimum != null && (exclusiveMinimum ? value <= minimum : value < minimum)) {
+                violations.add(new Violation(path.toString(),
+                        "value " + number + " is below " + (exclusiveMinimum ? "exclusive " : "") + "minimum " + display(minimum)));
+            }
+            if (maximum != null && (exclusiveMaximum ? value >= maximum : value > maximum)) {
+                violations.add(new Violation(path.toString(),
+                        "value " + number + " is above " + (exclusiveMaximum ? "exclusive " : "") + "maximum " + display(maximum)));
+            }
+        }
+
+        private void validateComposition(Object value, PathStack path, List<Violation> violations) {
+            if (allOf != null) {
+                for (Node node : allOf) {
+                    node.validate(value, path, violations);
+                }
+            }
+            if (anyOf != null && countMatching(anyOf, value) == 0) {
+                violations.add(new Violation(path.toString(), "value does not match any of the anyOf schemas"));
+            }
+            if (oneOf != null) {
+                int matching = countMatching(oneOf, value);
+                if (matching != 1) {
+                    violations.add(new Violation(path.toString(),
+                            "value must match exactly one oneOf schema but matched " + matching));
+                }
+            }
+        }
+
+        private static int countMatching(Node[] nodes, Object value) {
+            int matching = 0;
+            for (Node node : nodes) {
+                List<Violation> scratch = new ArrayList<>();
+                node.validate(value, new PathStack(), scratch);
+                if (scratch.isEmpty()) {
+                    matching++;
+                }
+            }
+            return matching;
+        }
+
+        private boolean matchesType(Object value) {
+            if ((types & OBJECT) != 0 && value instanceof Map) return true;
+            if ((types & ARRAY) != 0 && value instanceof List) return true;
+            if ((types & STRING) != 0 && value instanceof String) return true;
+            if ((types & BOOLEAN) != 0 && value instanceof Boolean) return true;
+            if ((types & NUMBER) != 0 && value instanceof Number) return true;
+            return (types & INTEGER) != 0 && isIntegral(value);
+        }
+
+        private String typeName() {
+            switch (types) {
+                case OBJECT: return "object";
+                case ARRAY: return "array";
+                case STRING: return "string";
+                case NUMBER: return "number";
+                case INTEGER: return "integer";
+                case BOOLEAN: return "boolean";
+                default: return "value";
+            }
+        }
+    }
+
+    private static String display(double bound) {
+        return bound == Math.rint(bound) && Math.abs(bound) < 1e15 ? String.valueOf((long) bound) : String.valueOf(bound);
+    }
+
+    private static boolean isIntegral(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return true;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return !Double.isInfinite(d) && d == Math.rint(d);
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).stripTrailingZeros().scale() <= 0;
+        }
+        return false;
+    }
+
+    /**
+     * Normalises enum values so that numerically equal values of different Number types compare equal
+     */
+    private static Object enumKey(Object value) {
+        if (value instanceof Number && !(value instanceof BigDecimal)) {
+            return new BigDecimal(value.toString()).stripTrailingZeros();
+        }
+        return value instanceof BigDecimal ? ((BigDecimal) value).stripTrailingZeros() : value;
+    }
+
+    /**
+     * String formats checked with plain character scans; unknown formats are ignored as the OpenAPI spec allows
+     */
+    private enum Format {
+        DATE("date") {
+            @Override
+            boolean matches(String value) {
+                return isDate(value, 0) && value.length() == 10;
+            }
+        },
+        DATE_TIME("date-time") {
+            @Override
+            boolean matches(String value) {
+                return isDate(value, 0) && isTime(value, 10);
+            }
+        },
+        EMAIL("email") {
+            @Override
+            boolean matches(String value) {
+                int at = value.indexOf('@');
+                int dot = value.lastIndexOf('.');
+                if (at < 1 || at != value.lastIndexOf('@') || dot < at + 2 || dot == value.length() - 1) {
+                    return false;
+                }
+                for (int i = 0; i < value.length(); i++) {
+                    if (Character.isWhitespace(value.charAt(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+
+        final String name;
+
+        Format(String name) {
+            this.name = name;
+        }
+
+        abstract boolean matches(String value);
+
+        static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name.equals(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Checks for a calendar-valid yyyy-MM-dd at the given offset
+         */
+        private static boolean isDate(String value, int offset) {
+            if (value.length() < offset + 10 || value.charAt(offset + 4) != '-' || value.charAt(offset + 7) != '-') {
+                return false;
+            }
+            int year = digits(value, offset, 4);
+            int month = digits(value, offset + 5, 2);
+            int day = digits(value, offset + 8, 2);
+            if (year < 0 || month < 1 || month > 12 || day < 1) {
+                return false;
+            }
+            int daysInMonth = month == 2
+                    ? ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28)
+                    : (month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31);
+            return day <= daysInMonth;
+        }
+
+        /**
+         * Checks for an RFC 3339 "THH:mm:ss[.fraction](Z|+HH:mm)" suffix starting at the given offset
+         */
+        private static boolean isTime(String value, int offset) {
+            if (value.length() < offset + 10) {
+                return false;
+            }
+            char separator = value.charAt(offset);
+            if ((separator != 'T' && separator != 't' && separator != ' ')
+                    || value.charAt(offset + 3) != ':' || value.charAt(offset + 6) != ':') {
+                return false;
+            }
+            int hour = digits(value, offset + 1, 2);
+            int minute = digits(value, offset + 4, 2);
+            int second = digits(value, offset + 7, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+                return false;
+            }
+
+            int i = offset + 9;
+            if (i < value.length() && value.charAt(i) == '.') {
+                int start = ++i;
+                while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                    i++;
+                }
+                if (i == start) {
+                    return false;
+                }
+            }
+
+            if (i == value.length() - 1) {
+                char zone = value.charAt(i);
+                return zone == 'Z' || zone == 'z';
+            }
+            if (i != value.length() - 6 || (value.charAt(i) != '+' && value.charAt(i) != '-') || value.charAt(i + 3) != ':') {
+                return false;
+            }
+            int offsetHours = digits(value, i + 1, 2);
+            int offsetMinutes = digits(value, i + 4, 2);
+            return offsetHours >= 0 && offsetHours <= 23 && offsetMinutes >= 0 && offsetMinutes <= 59;
+        }
+
+        private static int digits(String value, int offset, int count) {
+            int result = 0;
+            for (int i = offset; i < offset + count; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                result = result * 10 + (c - '0');
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Current location in the payload; only rendered to a string when a violation is reported
+     */
+    private static final class PathStack {
+        private final ArrayList<Object> segments = new ArrayList<>();
+
+        void push(Object segment) {
+            segments.add(segment);
+        }
+
+        void pop() {
+            segments.remove(segments.size() - 1);
+        }
+
+        @Override
+        public String toString() {
+            if (segments.isEmpty()) {
+                return "$";
+            }
+            StringBuilder path = new StringBuilder();
+            for (Object segment : segments) {
+                if (segment instanceof Integer) {
+                    path.append('[').append(segment).append(']');
+                } else {
+                    if (path.length() > 0) {
+                        path.append('.');
+                    }
+                    path.append(segment);
+                }
+            }
+            return path.toString();
+        }
+    }
+
+    /**
+     * A single schema violation at a dot-notation path
+     */
+    public static class Violation {
+        private final String path;
+        private final String message;
+
+        public Violation(String path, String message) {
+            this.path = path;
+            this.message = message;
+        }
+
+        public String getPath() { return path; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return path + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.fico.karate.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Run-wide timings of the work done per scenario row, shared by all Karate threads: a histogram per feature and
+ * phase (payload population, each HTTP call, response validation) and the rate at which each feature's scenarios
+ * complete while it runs. Phases are recorded on the thread running the scenario, which a Karate hook names with
+ * {@link #startScenario(String)}. Nothing is recorded until {@link #setEnabled(boolean)}, so utilities used
+ * outside Karate runs (e.g., {@link ScenarioDataGenerator}) pay only a flag check.
+ */
+public final class TimingRecorder {
+
+    public static final String POPULATE = "populate";
+    public static final String VALIDATE = "validate";
+
+    private static final String NO_FEATURE = "(no feature)";
+
+    private static volatile boolean enabled;
+    private static volatile Instant startedAt;
+    private static final ThreadLocal<String> currentFeature = new ThreadLocal<>();
+    private static final Map<String, FeatureTimings> features = new ConcurrentHashMap<>();
+
+    private TimingRecorder() {
+    }
+
+    public static boolean isEnabled() { return enabled; }
+
+    public static void setEnabled(boolean enabled) {
+        if (enabled && startedAt == null) {
+            startedAt = Instant.now();
+        }
+        TimingRecorder.enabled = enabled;
+    }
+
+    /**
+     * Attributes the phases later recorded on this thread to a feature, until {@link #finishScenario(boolean)}
+     * @param feature Feature name for the report, e.g., "com.fico.tests.features.plor.plor_api"
+     */
+    public static void startScenario(String feature) {
+        if (enabled) {
+            currentFeature.set(feature);
+        }
+    }
+
+    public static void finishScenario(boolean failed) {
+        String feature = currentFeature.get();
+        if (!enabled || feature == null) {
+            return;
+        }
+        currentFeature.remove();
+        FeatureTimings timings = timings(feature);
+        timings.scenarios.increment();
+        if (failed) {
+            timings.failedScenarios.increment();
+        }
+    }
+
+    /**
+     * Adds the duration of one run of a feature to the time it ran; scenarios per second are computed over this time
+     */
+    public static void recordFeatureRun(String feature, long nanos) {
+        if (enabled) {
+            timings(feature).runNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Records the time since {@code startNanos}, taken from {@link System#nanoTime()}, for the current scenario's feature
+     */
+    public static void record(String phase, long startNanos) {
+        if (enabled) {
+            recordNanos(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    public static void recordNanos(String phase, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        String feature = currentFeature.get();
+        timings(feature != null ? feature : NO_FEATURE).phases.computeIfAbsent(phase, name -> new Histogram()).record(nanos);
+    }
+
+    public static long getScenarios() {
+        long scenarios = 0;
+        for (FeatureTimings timings : features.values()) {
+            scenarios += timings.scenarios.sum();
+        }
+        return scenarios;
+    }
+
+    /**
+     * Scenario counts, scenarios per second and per-phase percentiles for each feature, in microseconds
+     */
+    public static Map<String, Object> toMap() {
+        Map<String, Object> byFeature = new TreeMap<>();
+        for (Map.Entry<String, FeatureTimings> feature : features.entrySet()) {
+            byFeature.put(feature.getKey(), feature.getValue().toMap());
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", String.valueOf(startedAt));
+        report.put("unit", "microseconds");
+        report.put("scenarios", getScenarios());
+        report.put("features", byFeature);
+        return report;
+    }
+
+    /**
+     * Compact text form for the console: one line per feature, then one per phase
+     */
+    public static String format() {
+        StringBuilder text = new StringBuilder(String.format("Scenario timings (microseconds):%n"));
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> byFeature = (Map<String, Map<String, Object>>) toMap().get("features");
+        for (Map.Entry<String, Map<String, Object>> feature : byFeature.entrySet()) {
+            Map<String, Object> entry = feature.getValue();
+            text.append(String.format("  %s: %d scenarios, %d failed, %s/s%n", feature.getKey(),
+                    (Long) entry.get("scenarios"), (Long) entry.get("failedScenarios"), entry.get("scenariosPerSecond")));
+            @SuppressWarnings("unchecked")
+            Map<String, Map<String, Object>> phases = (Map<String, Map<String, Object>>) entry.get("phases");
+            for (Map.Entry<String, Map<String, Object>> phase : phases.entrySet()) {
+                Map<String, Object> stats = phase.getValue();
+                text.append(String.format("    %-40s n=%-7d p50=%-8d p90=%-8d p99=%-8d max=%d%n", phase.getKey(),
+                        (Long) stats.get("count"), (Long) stats.get("p50"), (Long) stats.get("p90"),
+                        (Long) stats.get("p99"), (Long) stats.get("max")));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes {@link #toMap()} as JSON, creating the parent directory if needed
+     */
+    public static void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        YamlSchemaUtils.jsonMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toMap());
+    }
+
+    /**
+     * Clears all timings, e.g., between runs in the same JVM; recording stays enabled or disabled
+     */
+    public static void reset() {
+        features.clear();
+        startedAt = enabled ? Instant.now() : null;
+    }
+
+    private static FeatureTimings timings(String feature) {
+        return features.computeIfAbsent(feature, name -> new FeatureTimings());
+    }
+
+    private static final class FeatureTimings {
+        final LongAdder scenarios = new LongAdder();
+        final LongAdder failedScenarios = new LongAdder();
+        final LongAdder runNanos = new LongAdder();
+        final Map<String, Histogram> phases = new ConcurrentHashMap<>();
+
+        Map<String, Object> toMap() {
+            long count = scenarios.sum();
+            long elapsedNanos = runNanos.sum();
+
+            Map<String, Object> byPhase = new TreeMap<>();
+            for (Map.Entry<String, Histogram> phase : phases.entrySet()) {
+                byPhase.put(phase.getKey(), phase.getValue().toMap());
+            }
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("scenarios", count);
+            entry.put("failedScenarios", failedScenarios.sum());
+            entry.put("elapsedMillis", elapsedNanos / 1_000_000);
+            entry.put("scenariosPerSecond", elapsedNanos > 0 ? Math.round(count * 1e10 / elapsedNanos) / 10.0 : 0.0);
+            entry.put("phases", byPhase);
+            return entry;
+        }
+    }
+
+    /**
+     * Log-linear histogram of nanosecond durations: each power of two is split into 16 buckets, so a percentile is
+     * reported within 1/16 (about 6%) of the recorded value while recording stays a few atomic increments
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS) * SUB_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            counts.incrementAndGet(bucket(value));
+            count.increment();
+            total.add(value);
+            max.accumulate(value);
+        }
+
+        static int bucket(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) nanos;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) ((nanos >>> shift) - SUB_BUCKETS);
+        }
+
+        /**
+         * Highest value that falls in a bucket
+         */
+        static long bucketMax(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            return ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift) + (1L << shift) - 1;
+        }
+
+        /**
+         * @param quantile Between 0 and 1, e.g., 0.99
+         * @return The upper bound of the bucket holding the quantile, capped at the largest value recorded
+         */
+        long percentile(double quantile) {
+            long recorded = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                recorded += counts.get(i);
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * recorded));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(bucketMax(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        Map<String, Object> toMap() {
+            long n = count.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", n);
+            stats.put("mean", n > 0 ? total.sum() / n / 1000 : 0L);
+            stats.put("p50", percentile(0.50) / 1000);
+            stats.put("p90", percentile(0.90) / 1000);
+            stats.put("p99", percentile(0.99) / 1000);
+            stats.put("max", max.get() / 1000);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.fico.karate.utils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of OAuth2 client credentials tokens, shared by all Karate threads. A token is
+ * reused until {@link #REFRESH_MARGIN_MILLIS} before it expires, or until half its lifetime has passed
+ * for tokens living less than twice the margin; a token response without expires_in is taken to live
+ * {@link #DEFAULT_LIFETIME_SECONDS}. When a token has to be fetched, only one thread per token URL and
+ * client requests it while the others wait for that result; other tokens are not held up meanwhile.
+ */
+public final class TokenCache {
+
+    static final long REFRESH_MARGIN_MILLIS = 30_000;
+    static final long DEFAULT_LIFETIME_SECONDS = 300;
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private static final Map<String, CompletableFuture<Token>> tokens = new ConcurrentHashMap<>();
+
+    private TokenCache() {
+    }
+
+    /**
+     * Returns a cached access token, requesting a new one when there is none or it is about to expire
+     * @param tokenUrl Token endpoint (e.g., "http://localhost:8090/oauth/token")
+     * @param clientId OAuth2 client id
+     * @param clientSecret OAuth2 client secret
+     * @return The access token, without the "Bearer " prefix
+     */
+    public static String getAccessToken(String tokenUrl, String clientId, String clientSecret) {
+        String key = tokenUrl + '|' + clientId;
+        while (true) {
+            CompletableFuture<Token> current = tokens.get(key);
+            if (current != null && !isStale(current, System.currentTimeMillis())) {
+                return accessToken(current);
+            }
+
+            // The thread that installs the pending fetch requests the token; the others wait on it or on its successor
+            CompletableFuture<Token> fetch = new CompletableFuture<>();
+            boolean installed = current == null ? tokens.putIfAbsent(key, fetch) == null : tokens.replace(key, current, fetch);
+            if (!installed) {
+                continue;
+            }
+            try {
+                fetch.complete(request(tokenUrl, clientId, clientSecret));
+            } catch (Throwable e) {
+                tokens.remove(key, fetch);
+                fetch.completeExceptionally(e);
+            }
+            return accessToken(fetch);
+        }
+    }
+
+    /**
+     * Drops all cached tokens, forcing the next lookup to request a new one
+     */
+    public static void clear() {
+        tokens.clear();
+    }
+
+    /**
+     * A token that has expired or failed to arrive; a fetch still in flight is not stale
+     */
+    private static boolean isStale(CompletableFuture<Token> token, long now) {
+        if (!token.isDone()) {
+            return false;
+        }
+        return token.isCompletedExceptionally() || !token.join().isFresh(now);
+    }
+
+    private static String accessToken(CompletableFuture<Token> token) {
+        try {
+            return token.join().accessToken;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private static Token request(String tokenUrl, String clientId, String clientSecret) {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("grant_type", "client_credentials");
+        body.put("client_id", clientId);
+        body.put("client_secret", clientSecret);
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(tokenUrl))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(YamlSchemaUtils.jsonMapper.writeValueAsBytes(body)))
+                    .build();
+            long requestedAt = System.currentTimeMillis();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Token request to " + tokenUrl + " failed with status " + response.statusCode());
+            }
+
+            Map<?, ?> token = YamlSchemaUtils.jsonMapper.readValue(response.body(), Map.class);
+            Object accessToken = token.get("access_token");
+            Object expiresIn = token.get("expires_in");
+            if (!(accessToken instanceof String)) {
+                throw new RuntimeException("Token response from " + tokenUrl + " has no access_token");
+            }
+            long lifetimeSeconds = expiresIn instanceof Number ? ((Number) expiresIn).longValue() : DEFAULT_LIFETIME_SECONDS;
+            return new Token((String) accessToken, requestedAt, TimeUnit.SECONDS.toMillis(Math.max(0, lifetimeSeconds)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while requesting a token from " + tokenUrl, e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Token request to " + tokenUrl + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Token {
+        final String accessToken;
+        final long refreshAt;
+
+        Token(String accessToken, long requestedAt, long lifetimeMillis) {
+            this.accessToken = accessToken;
+            this.refreshAt = requestedAt + lifetimeMillis - Math.min(REFRESH_MARGIN_MILLIS, lifetimeMillis / 2);
+        }
+
+        boolean isFresh(long now) {
+            return now < refreshAt;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.fico.karate.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Run-wide totals of {@link ResponseValidator} results, shared by all Karate threads: rows and checks,
+ * and mismatches per path with the first mismatch seen as an example. Written once at the end of a run
+ * instead of logging every row.
+ */
+public final class ValidationSummary {
+
+    private static final LongAdder rows = new LongAdder();
+    private static final LongAdder failedRows = new LongAdder();
+    private static final LongAdder checks = new LongAdder();
+    private static final Map<String, PathMismatches> mismatches = new ConcurrentHashMap<>();
+
+    private ValidationSummary() {
+    }
+
+    static void record(ResponseValidator.Result result) {
+        rows.increment();
+        checks.add(result.getChecked());
+        if (result.isPassed()) {
+            return;
+        }
+
+        failedRows.increment();
+        for (ResponseValidator.Mismatch mismatch : result.getMismatches()) {
+            mismatches.computeIfAbsent(mismatch.getPath(), path -> new PathMismatches(mismatch)).count.increment();
+        }
+    }
+
+    public static long getRows() { return rows.sum(); }
+    public static long getFailedRows() { return failedRows.sum(); }
+    public static long getChecks() { return checks.sum(); }
+
+    /**
+     * Totals and per-path mismatches, most frequent first
+     */
+    public static Map<String, Object> toMap() {
+        List<Map.Entry<String, PathMismatches>> paths = new ArrayList<>(mismatches.entrySet());
+        paths.sort((a, b) -> Long.compare(b.getValue().count.sum(), a.getValue().count.sum()));
+
+        Map<String, Object> byPath = new LinkedHashMap<>();
+        for (Map.Entry<String, PathMismatches> path : paths) {
+            ResponseValidator.Mismatch example = path.getValue().example;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("mismatches", path.getValue().count.sum());
+            entry.put("message", example.getMessage());
+            entry.put("expected", example.getExpectedValue());
+            entry.put("actual", example.getActualValue());
+            byPath.put(path.getKey(), entry);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("rows", getRows());
+        summary.put("failedRows", getFailedRows());
+        summary.put("checks", getChecks());
+        summary.put("mismatchesByPath", byPath);
+        return summary;
+    }
+
+    /**
+     * Compact text form for the console: the totals, then one line per mismatching path
+     */
+    public static String format() {
+        StringBuilder text = new StringBuilder(String.format("Response validation: %d rows, %d failed, %d checks%n",
+                getRows(), getFailedRows(), getChecks()));
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> byPath = (Map<String, Map<String, Object>>) toMap().get("mismatchesByPath");
+        for (Map.Entry<String, Map<String, Object>> path : byPath.entrySet()) {
+            Map<String, Object> entry = path.getValue();
+            text.append(String.format("  %6d  %s  e.g. expected %s, actual %s%n",
+                    (Long) entry.get("mismatches"), path.getKey(), entry.get("expected"), entry.get("actual")));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes {@link #toMap()} as JSON, creating the parent directory if needed
+     */
+    public static void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        YamlSchemaUtils.jsonMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toMap());
+    }
+
+    /**
+     * Clears all totals, e.g., between runs in the same JVM
+     */
+    public static void reset() {
+        rows.reset();
+        failedRows.reset();
+        checks.reset();
+        mismatches.clear();
+    }
+
+    private static final class PathMismatches {
+        final LongAdder count = new LongAdder();
+        final ResponseValidator.Mismatch example;
+
+        PathMismatches(ResponseValidator.Mismatch example) {
+            this.example = example;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.fico.karate.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chooses a {@link ValueConverter} per CSV column from the type of the property the column's path leads
+ * to in a payload schema, e.g., "applicants[0].creditProfile.creditScore" converts as an integer and
+ * "applicants[0].address.zipCode" stays a string. Each column is planned once; paths the schema does not
+ * describe (and {@link #INFERRED} for all paths) fall back to {@link ValueConverter#INFERRED}.
+ */
+public final class ValueConversionPlan {
+
+    /** Plan without a schema, guessing every type from the cell text */
+    public static final ValueConversionPlan INFERRED = new ValueConversionPlan(null);
+
+    private final Map<String, Object> schema;
+    private final Map<String, ValueConverter> converters = new ConcurrentHashMap<>();
+
+    private ValueConversionPlan(Map<String, Object> schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Returns the plan for an operation's application/json request body, built once per parsed schema file
+     * @param schemaPath Classpath location of the OpenAPI file (e.g., "classpath:api_schema.yaml")
+     * @param apiPath Path under "paths" (e.g., "/api/plor/v1/transaction")
+     * @param method HTTP method in any case (e.g., "post")
+     */
+    public static ValueConversionPlan forRequestBody(String schemaPath, String apiPath, String method) {
+        OpenApiSchema openApi = SchemaRegistry.get(schemaPath);
+        return openApi.compiled("conversions:request:" + method.toLowerCase(Locale.ROOT) + " " + apiPath, key -> {
+            Map<String, Object> schema = openApi.getRequestBodySchema(apiPath, method);
+            if (schema == null) {
+                throw new RuntimeException("No schema defined for request body of " + method + " " + apiPath);
+            }
+            return new ValueConversionPlan(schema);
+        });
+    }
+
+    /**
+     * Returns the converter for a column, planning it on first use
+     */
+    public ValueConverter converterFor(PathAccessor column) {
+        if (schema == null) {
+            return ValueConverter.INFERRED;
+        }
+        ValueConverter converter = converters.get(column.getPath());
+        if (converter == null) {
+            converter = plan(column);
+            converters.putIfAbsent(column.getPath(), converter);
+        }
+        return converter;
+    }
+
+    /**
+     * Converts a cell of a column; null or blank cells are returned unchanged
+     */
+    public Object convert(PathAccessor column, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return value;
+        }
+        return converterFor(column).convert(value);
+    }
+
+    private ValueConverter plan(PathAccessor column) {
+        Object node = schema;
+        for (PathAccessor.Segment segment : column.getSegments()) {
+            node = child(child(node, "properties"), segment.field);
+            if (segment.index >= 0) {
+                node = child(node, "items");
+            }
+            if (node == null) {
+                return ValueConverter.INFERRED;
+            }
+        }
+        return ValueConverter.forSchemaType(((Map<?, ?>) node).get("type"));
+    }
+
+    private static Object child(Object node, String key) {
+        Object value = node instanceof Map ? ((Map<?, ?>) node).get(key) : null;
+        return value instanceof Map ? value : null;
+    }
+}
@@ -0,0 +1,189 @@
+package com.fico.karate.utils;
+
+/**
+ * Converts CSV cell text to the JSON value written into a payload. Conversions scan the text once and
+ * never throw: text that does not fit the target type is kept as a string, so a bad cell surfaces as
+ * a schema violation on the payload instead of an exception per cell.
+ */
+public enum ValueConverter {
+
+    /** Schema type string: the cell as it is, even when it looks numeric (zip codes, IDs) */
+    STRING {
+        @Override
+        public Object convert(String value) {
+            return value;
+        }
+    },
+
+    /** Schema type integer: Integer, or Long when out of int range */
+    INTEGER {
+        @Override
+        public Object convert(String value) {
+            String trimmed = value.trim();
+            Object integral = isInteger(trimmed) ? integral(trimmed, false) : null;
+            return integral != null ? integral : value;
+        }
+    },
+
+    /** Schema type number: whole numbers as Integer or Long, anything else numeric as Double */
+    NUMBER {
+        @Override
+        public Object convert(String value) {
+            String trimmed = value.trim();
+            Object integral = isInteger(trimmed) ? integral(trimmed, false) : null;
+            if (integral != null) {
+                return integral;
+            }
+            return isDecimal(trimmed) ? (Object) Double.parseDouble(trimmed) : value;
+        }
+    },
+
+    /** Schema type boolean: "true" or "false" in any case */
+    BOOLEAN {
+        @Override
+        public Object convert(String value) {
+            String trimmed = value.trim();
+            if ("true".equalsIgnoreCase(trimmed)) {
+                return Boolean.TRUE;
+            }
+            return "false".equalsIgnoreCase(trimmed) ? Boolean.FALSE : value;
+        }
+    },
+
+    /**
+     * No schema type known: text with a dot that is a number becomes a Double, a whole number in int range an
+     * Integer, true/false a Boolean, and anything else stays a string
+     */
+    INFERRED {
+        @Override
+        public Object convert(String value) {
+            if (value.indexOf('.') >= 0) {
+                String trimmed = value.trim();
+                if (isDecimal(trimmed)) {
+                    return Double.parseDouble(trimmed);
+                }
+            } else if (isInteger(value)) {
+                Object integral = integral(value, true);
+                if (integral != null) {
+                    return integral;
+                }
+            }
+
+            if ("true".equalsIgnoreCase(value)) {
+                return Boolean.TRUE;
+            }
+            return "false".equalsIgnoreCase(value) ? Boolean.FALSE : value;
+        }
+    };
+
+    /**
+     * @param value Non-null cell text
+     */
+    public abstract Object convert(String value);
+
+    /**
+     * Returns the converter for an OpenAPI "type", or {@link #INFERRED} when the type is missing or not a scalar
+     */
+    static ValueConverter forSchemaType(Object type) {
+        if (!(type instanceof String)) {
+            return INFERRED;
+        }
+        switch ((String) type) {
+            case "string":
+                return STRING;
+            case "integer":
+                return INTEGER;
+            case "number":
+                return NUMBER;
+            case "boolean":
+                return BOOLEAN;
+            default:
+                return INFERRED;
+        }
+    }
+
+    /**
+     * An optional sign followed by one or more digits
+     */
+    static boolean isInteger(String text) {
+        int start = text.startsWith("-") || text.startsWith("+") ? 1 : 0;
+        if (start == text.length()) {
+            return false;
+        }
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A decimal number with optional sign, fraction and exponent, e.g., "-12.5", ".5", "1e3"
+     */
+    static boolean isDecimal(String text) {
+        int i = text.startsWith("-") || text.startsWith("+") ? 1 : 0;
+        int digits = 0;
+        while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+            digits++;
+        }
+        if (i < text.length() && text.charAt(i) == '.') {
+            i++;
+            while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < text.length() && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < text.length() && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == text.length();
+    }
+
+    /**
+     * Accumulates the digits of text accepted by {@link #isInteger(String)} as a negative number, as
+     * Long.parseLong does, so that Long.MIN_VALUE fits
+     * @param intOnly Whether values beyond int range are rejected rather than returned as a Long
+     * @return An Integer when the value fits in int, otherwise a Long, or null when it does not fit
+     */
+    private static Object integral(String text, boolean intOnly) {
+        boolean negative = text.charAt(0) == '-';
+        int start = negative || text.charAt(0) == '+' ? 1 : 0;
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (int i = start; i < text.length(); i++) {
+            int digit = text.charAt(i) - '0';
+            if (result < multiplyLimit) {
+                return null;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return null;
+            }
+            result -= digit;
+        }
+
+        long value = negative ? result : -result;
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return intOnly ? null : (Object) value;
+    }
+}
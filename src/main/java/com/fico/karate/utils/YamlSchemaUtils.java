@@ -1,67 +1,63 @@
 package com.fico.karate.utils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.core.type.TypeReference;
 
 import java.io.InputStream;
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 public class YamlSchemaUtils {
     
-    private static final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
-    private static final ObjectMapper jsonMapper = new ObjectMapper();
+    static final ObjectMapper jsonMapper = new ObjectMapper();
     
+    /**
+     * Loads a YAML schema through the shared {@link SchemaRegistry}, so repeated config evaluations reuse one parse
+     * @param filePath Classpath location of the schema (e.g., "classpath:api_schema.yaml")
+     * @return Immutable view of the schema document
+     */
     public static Map<String, Object> loadSchemaAsMap(String filePath) {
-        try {
-            InputStream inputStream;
-            if (filePath.startsWith("classpath:")) {
-                String resourcePath = filePath.substring("classpath:".length());
-                inputStream = YamlSchemaUtils.class.getClassLoader().getResourceAsStream(resourcePath);
-                if (inputStream == null) {
-                    throw new RuntimeException("Resource not found: " + resourcePath);
-                }
-            } else {
-                inputStream = YamlSchemaUtils.class.getClassLoader().getResourceAsStream(filePath);
-                if (inputStream == null) {
-                    throw new RuntimeException("Resource not found: " + filePath);
-                }
-            }
-            
-            @SuppressWarnings("unchecked")
-            Map<String, Object> schema = yamlMapper.readValue(inputStream, Map.class);
-            return schema;
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load YAML schema from: " + filePath, e);
+        return SchemaRegistry.get(filePath).getDocument();
+    }
+    
+    /**
+     * Opens a classpath resource, accepting an optional "classpath:" prefix
+     */
+    static InputStream openResource(String filePath) {
+        String resourcePath = filePath.startsWith("classpath:") ? filePath.substring("classpath:".length()) : filePath;
+        InputStream inputStream = YamlSchemaUtils.class.getClassLoader().getResourceAsStream(resourcePath);
+        if (inputStream == null) {
+            throw new RuntimeException("Resource not found: " + resourcePath);
         }
+        return inputStream;
     }
     
     /**
-     * Populates a JSON template with values from CSV data using dot-notation paths
+     * Populates a JSON template with values from CSV data using dot-notation paths.
+     * For repeated rows against the same template prefer {@link JsonTemplate#populate(Map)}, which avoids copying untouched branches.
      * @param templateJson The base JSON template as a Map
      * @param csvRow Map containing CSV data with dot-notation keys (e.g., "application.applicationId")
      * @return Populated JSON as Map
      */
     public static Map<String, Object> populateJsonFromCsv(Map<String, Object> templateJson, Map<String, String> csvRow) {
+        long start = System.nanoTime();
         try {
-            String jsonString = jsonMapper.writeValueAsString(templateJson);
-            Map<String, Object> populatedJson = jsonMapper.readValue(jsonString, new TypeReference<Map<String, Object>>() {});
+            @SuppressWarnings("unchecked")
+            Map<String, Object> populatedJson = (Map<String, Object>) deepCopy(templateJson);
             
             for (Map.Entry<String, String> entry : csvRow.entrySet()) {
-                String path = entry.getKey();
                 String value = entry.getValue();
+                if (value == null || value.trim().isEmpty()) {
+                    continue;
+                }
                 
-                if (path.startsWith("response.") || value == null || value.trim().isEmpty()) {
+                PathAccessor accessor = PathAccessor.forColumn(entry.getKey());
+                if (accessor.isResponse()) {
                     continue;
                 }
                 
-                setValueAtPath(populatedJson, path, value);
+                accessor.set(populatedJson, convertValue(value));
             }
             
+            TimingRecorder.record(TimingRecorder.POPULATE, start);
             return populatedJson;
             
         } catch (Exception e) {
@@ -70,27 +66,28 @@ public class YamlSchemaUtils {
     }
     
     /**
-     * Validates response JSON against expected values from CSV using dot-notation paths
+     * Validates response JSON against expected values from CSV using dot-notation paths.
+     * For many rows prefer {@link ResponseValidator}, which walks each response once and only reports mismatches.
      * @param responseJson The response JSON as a Map
      * @param csvRow Map containing CSV data with "response." prefixed keys
      * @return Map containing validation results (path -> result)
      */
     public static Map<String, ValidationResult> validateResponseFromCsv(Map<String, Object> responseJson, Map<String, String> csvRow) {
+        long start = System.nanoTime();
         Map<String, ValidationResult> results = new HashMap<>();
         
         for (Map.Entry<String, String> entry : csvRow.entrySet()) {
             String path = entry.getKey();
             String expectedValue = entry.getValue();
             
-            if (!path.startsWith("response.") || expectedValue == null || expectedValue.trim().isEmpty()) {
+            if (!path.startsWith(PathAccessor.RESPONSE_PREFIX) || expectedValue == null || expectedValue.trim().isEmpty()) {
                 continue;
             }
             
-            String jsonPath = path.substring("response.".length());
-            
             try {
-                Object actualValue = getValueAtPath(responseJson, jsonPath);
-                ValidationResult result = validateValue(actualValue, expectedValue, jsonPath);
+                PathAccessor accessor = PathAccessor.forColumn(path);
+                Object actualValue = accessor.get(responseJson);
+                ValidationResult result = validateValue(actualValue, expectedValue, accessor.getPath());
                 results.put(path, result);
                 
             } catch (Exception e) {
@@ -99,215 +96,41 @@ public class YamlSchemaUtils {
             }
         }
         
+        TimingRecorder.record(TimingRecorder.VALIDATE, start);
         return results;
     }
     
     /**
-     * Sets a value at the specified dot-notation path in a nested Map structure
-     * Supports array notation like "applicants[0].firstName"
-     */
-    private static void setValueAtPath(Map<String, Object> json, String path, String value) {
-        String[] parts = parsePath(path);
-        Object current = json;
-        
-        for (int i = 0; i < parts.length - 1; i++) {
-            String part = parts[i];
-            
-            if (isArrayAccess(part)) {
-                ArrayAccess access = parseArrayAccess(part);
-                current = navigateToArrayElement(current, access, true);
-            } else {
-                if (current instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> currentMap = (Map<String, Object>) current;
-                    
-                    if (!currentMap.containsKey(part)) {
-                        if (i + 1 < parts.length && isArrayAccess(parts[i + 1])) {
-                            currentMap.put(part, new ArrayList<>());
-                        } else {
-                            currentMap.put(part, new HashMap<String, Object>());
-                        }
-                    }
-                    current = currentMap.get(part);
-                } else {
-                    throw new RuntimeException("Cannot navigate to path: " + path + " at part: " + part);
-                }
-            }
-        }
-        
-        String finalPart = parts[parts.length - 1];
-        if (isArrayAccess(finalPart)) {
-            ArrayAccess access = parseArrayAccess(finalPart);
-            setArrayElementValue(current, access, convertValue(value));
-        } else {
-            if (current instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> currentMap = (Map<String, Object>) current;
-                currentMap.put(finalPart, convertValue(value));
-            } else {
-                throw new RuntimeException("Cannot set value at path: " + path);
-            }
-        }
-    }
-    
-    /**
-     * Gets a value at the specified dot-notation path from a nested Map structure
-     */
-    private static Object getValueAtPath(Map<String, Object> json, String path) {
-        String[] parts = parsePath(path);
-        Object current = json;
-        
-        for (String part : parts) {
-            if (isArrayAccess(part)) {
-                ArrayAccess access = parseArrayAccess(part);
-                current = navigateToArrayElement(current, access, false);
-            } else {
-                if (current instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> currentMap = (Map<String, Object>) current;
-                    current = currentMap.get(part);
-                } else {
-                    return null;
-                }
-            }
-            
-            if (current == null) {
-                return null;
-            }
-        }
-        
-        return current;
-    }
-    
-    /**
-     * Parses a dot-notation path into individual parts
-     */
-    private static String[] parsePath(String path) {
-        List<String> parts = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inBrackets = false;
-        
-        for (char c : path.toCharArray()) {
-            if (c == '[') {
-                inBrackets = true;
-                current.append(c);
-            } else if (c == ']') {
-                inBrackets = false;
-                current.append(c);
-            } else if (c == '.' && !inBrackets) {
-                if (current.length() > 0) {
-                    parts.add(current.toString());
-                    current = new StringBuilder();
-                }
-            } else {
-                current.append(c);
-            }
-        }
-        
-        if (current.length() > 0) {
-            parts.add(current.toString());
-        }
-        
-        return parts.toArray(new String[0]);
-    }
-    
-    /**
-     * Checks if a path part contains array access notation
-     */
-    private static boolean isArrayAccess(String part) {
-        return part.contains("[") && part.contains("]");
-    }
-    
-    /**
-     * Parses array access notation like "applicants[0]"
-     */
-    private static ArrayAccess parseArrayAccess(String part) {
-        Pattern pattern = Pattern.compile("([^\\[]+)\\[(\\d+)\\]");
-        Matcher matcher = pattern.matcher(part);
-        
-        if (matcher.matches()) {
-            String fieldName = matcher.group(1);
-            int index = Integer.parseInt(matcher.group(2));
-            return new ArrayAccess(fieldName, index);
-        } else {
-            throw new RuntimeException("Invalid array access notation: " + part);
-        }
-    }
-    
-    /**
-     * Navigates to an array element, creating the structure if needed
+     * Copies nested Maps and Lists structurally; leaf values are immutable and shared
      */
-    private static Object navigateToArrayElement(Object current, ArrayAccess access, boolean createIfMissing) {
-        if (current instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> currentMap = (Map<String, Object>) current;
-            
-            Object arrayObj = currentMap.get(access.fieldName);
-            if (arrayObj == null && createIfMissing) {
-                arrayObj = new ArrayList<>();
-                currentMap.put(access.fieldName, arrayObj);
+    private static Object deepCopy(Object node) {
+        if (node instanceof Map) {
+            Map<?, ?> source = (Map<?, ?>) node;
+            Map<String, Object> copy = new LinkedHashMap<>(Math.max(16, source.size() * 4 / 3 + 1));
+            for (Map.Entry<?, ?> entry : source.entrySet()) {
+                copy.put(String.valueOf(entry.getKey()), deepCopy(entry.getValue()));
             }
-            
-            if (arrayObj instanceof List) {
-                @SuppressWarnings("unchecked")
-                List<Object> list = (List<Object>) arrayObj;
-                
-                while (list.size() <= access.index && createIfMissing) {
-                    list.add(new HashMap<String, Object>());
-                }
-                
-                if (access.index < list.size()) {
-                    return list.get(access.index);
-                }
+            return copy;
+        } else if (node instanceof List) {
+            List<?> source = (List<?>) node;
+            List<Object> copy = new ArrayList<>(source.size());
+            for (Object item : source) {
+                copy.add(deepCopy(item));
             }
+            return copy;
         }
-        
-        return null;
+        return node;
     }
     
     /**
-     * Sets a value in an array element
+     * Converts string values to appropriate types, guessing the type from the text.
+     * When the target schema is known, {@link ValueConversionPlan} converts by the property's declared type instead.
      */
-    private static void setArrayElementValue(Object current, ArrayAccess access, Object value) {
-        if (current instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> currentMap = (Map<String, Object>) current;
-            
-            Object arrayObj = currentMap.get(access.fieldName);
-            if (arrayObj instanceof List) {
-                @SuppressWarnings("unchecked")
-                List<Object> list = (List<Object>) arrayObj;
-                
-                while (list.size() <= access.index) {
-                    list.add(new HashMap<String, Object>());
-                }
-                
-                list.set(access.index, value);
-            }
-        }
-    }
-    
-    /**
-     * Converts string values to appropriate types
-     */
-    private static Object convertValue(String value) {
+    static Object convertValue(String value) {
         if (value == null || value.trim().isEmpty()) {
             return value;
         }
-        
-        try {
-            if (value.contains(".")) {
-                return Double.parseDouble(value);
-            } else {
-                return Integer.parseInt(value);
-            }
-        } catch (NumberFormatException e) {
-            if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
-                return Boolean.parseBoolean(value);
-            }
-            
-            return value;
-        }
+        return ValueConverter.INFERRED.convert(value);
     }
     
     /**
@@ -317,7 +140,7 @@ public class YamlSchemaUtils {
         try {
             Object expectedObj = convertValue(expectedValue);
             
-            boolean isValid = Objects.equals(actualValue, expectedObj);
+            boolean isValid = ResponseValidator.matches(actualValue, expectedValue);
             
             return new ValidationResult(isValid, actualValue, expectedObj, 
                 isValid ? "Match" : "Value mismatch");
@@ -328,19 +151,6 @@ public class YamlSchemaUtils {
         }
     }
     
-    /**
-     * Helper class for array access parsing
-     */
-    private static class ArrayAccess {
-        final String fieldName;
-        final int index;
-        
-        ArrayAccess(String fieldName, int index) {
-            this.fieldName = fieldName;
-            this.index = index;
-        }
-    }
-    
     /**
      * Result of a validation operation
      */
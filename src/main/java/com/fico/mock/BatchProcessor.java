@@ -0,0 +1,172 @@
+package com.fico.mock;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fico.mock.model.BatchResult;
+import com.fico.mock.model.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Processes batches of transaction requests on a bounded thread pool. Items are read one at a time
+ * from a JSON array or an NDJSON stream and handed to the pool while later items are still being
+ * read. Each result is written as an NDJSON line as soon as it completes, so results can arrive out
+ * of order and carry the index of their item. No more than {@code maxInFlight} items of a batch are
+ * read ahead of the results written, which bounds the memory a batch can hold.
+ */
+public class BatchProcessor implements Closeable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private final ThreadPoolExecutor executor;
+    private final int maxInFlight;
+
+    /**
+     * @param threads Threads shared by all batches
+     * @param maxInFlight Items of one batch being processed or waiting to be written at any time
+     */
+    public BatchProcessor(int threads, int maxInFlight) {
+        if (threads < 1 || maxInFlight < 1) {
+            throw new RuntimeException("Batch threads and max in-flight items must be at least 1: " + threads + ", " + maxInFlight);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "mock-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Reads every item of a batch, processes them in parallel and writes one {@link BatchResult} line per item.
+     * A malformed item ends the batch with a 400 line for that item, after the results of the items before it.
+     * @param input JSON array of requests, or requests separated by whitespace (NDJSON)
+     * @param output Receives the result lines
+     * @param handler Answers a single request body
+     * @return The number of items processed
+     */
+    int process(InputStream input, OutputStream output, Function<byte[], ResponseEntity<?>> handler) throws IOException {
+        BlockingQueue<BatchResult> completed = new LinkedBlockingQueue<>();
+        int submitted = 0;
+        int written = 0;
+
+        try (JsonParser parser = objectMapper.createParser(input);
+             JsonGenerator generator = objectMapper.createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            BatchResult malformed = null;
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    byte[] item = copyItem(parser);
+                    int index = submitted++;
+                    executor.execute(() -> completed.add(answer(index, item, handler)));
+
+                    written += write(generator, completed, submitted - written >= maxInFlight);
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                malformed = new BatchResult(submitted, HttpStatus.BAD_REQUEST.value(),
+                        new ErrorResponse("ERROR", "Malformed batch item: " + e.getOriginalMessage(), Timestamps.now()));
+            }
+
+            while (written < submitted) {
+                written += write(generator, completed, true);
+            }
+            if (malformed != null) {
+                writeLine(generator, malformed);
+                generator.flush();
+            }
+        }
+        return submitted;
+    }
+
+    private byte[] copyItem(JsonParser parser) throws IOException {
+        ByteArrayOutputStream item = new ByteArrayOutputStream(1024);
+        try (JsonGenerator copy = objectMapper.createGenerator(item)) {
+            copy.copyCurrentStructure(parser);
+        }
+        return item.toByteArray();
+    }
+
+    /**
+     * Never throws: any failure, including an Error, becomes a 500 result, so that every submitted item
+     * produces exactly one result and the writer never waits for one that will not come
+     */
+    private static BatchResult answer(int index, byte[] item, Function<byte[], ResponseEntity<?>> handler) {
+        try {
+            ResponseEntity<?> response = handler.apply(item);
+            return new BatchResult(index, response.getStatusCode().value(), response.getBody());
+        } catch (Throwable e) {
+            return new BatchResult(index, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    new ErrorResponse("ERROR", "Processing failed: " + (e.getMessage() != null ? e.getMessage() : e.toString()), Timestamps.now()));
+        }
+    }
+
+    /**
+     * Writes the results completed so far, first waiting for one if {@code wait} is set
+     * @return The number of results written
+     */
+    private int write(JsonGenerator generator, BlockingQueue<BatchResult> completed, boolean wait) throws IOException {
+        BatchResult result = wait ? take(completed) : completed.poll();
+        int count = 0;
+        while (result != null) {
+            writeLine(generator, result);
+            count++;
+            result = completed.poll();
+        }
+        if (count > 0) {
+            generator.flush();
+        }
+        return count;
+    }
+
+    /**
+     * Recorded and replayed responses are already serialised and are copied into the line as they are
+     */
+    private void writeLine(JsonGenerator generator, BatchResult result) throws IOException {
+        if (result.response() instanceof byte[] body) {
+            generator.writeStartObject();
+            generator.writeNumberField("index", result.index());
+            generator.writeNumberField("status", result.status());
+            generator.writeFieldName("response");
+            generator.writeRawValue(new String(body, StandardCharsets.UTF_8));
+            generator.writeEndObject();
+        } else {
+            objectMapper.writeValue(generator, result);
+        }
+        generator.writeRaw('\n');
+    }
+
+    private static BatchResult take(BlockingQueue<BatchResult> completed) throws IOException {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for batch results", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
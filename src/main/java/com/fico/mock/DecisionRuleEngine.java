@@ -0,0 +1,116 @@
+package com.fico.mock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * Holds the compiled decision rule table and keeps it in step with its file. The file is re-read at
+ * most once per {@link #CHECK_INTERVAL_MILLIS} and only recompiled when its content changes, so rules
+ * can be edited while the mock is running. A table that fails to compile on reload is logged and the
+ * previous rules stay in force.
+ */
+public class DecisionRuleEngine {
+
+    static final long CHECK_INTERVAL_MILLIS = 2000;
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionRuleEngine.class);
+
+    private final String location;
+    private final List<String> leadingPaths;
+    private volatile Loaded loaded;
+
+    /**
+     * @param location Spring resource location of the CSV table (e.g., "classpath:decision_rules.csv", "file:/tmp/rules.csv")
+     * @param leadingPaths Request paths to extract ahead of the rule columns
+     */
+    public DecisionRuleEngine(String location, List<String> leadingPaths) {
+        this.location = location;
+        this.leadingPaths = List.copyOf(leadingPaths);
+
+        byte[] content = read();
+        this.loaded = new Loaded(compile(content), sha256(content), System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the current rules, picking up changes to the file
+     */
+    DecisionRules current() {
+        Loaded current = loaded;
+        long now = System.currentTimeMillis();
+        if (now - current.checkedAt < CHECK_INTERVAL_MILLIS) {
+            return current.rules;
+        }
+
+        synchronized (this) {
+            current = loaded;
+            if (now - current.checkedAt >= CHECK_INTERVAL_MILLIS) {
+                loaded = current = refresh(current, now);
+            }
+        }
+        return current.rules;
+    }
+
+    private Loaded refresh(Loaded current, long now) {
+        try {
+            byte[] content = read();
+            String hash = sha256(content);
+            if (hash.equals(current.contentHash)) {
+                return new Loaded(current.rules, hash, now);
+            }
+
+            DecisionRules rules = compile(content);
+            log.info("Reloaded {} decision rules from {}", rules.size(), location);
+            return new Loaded(rules, hash, now);
+        } catch (RuntimeException e) {
+            log.warn("Keeping previous decision rules; reload of {} failed: {}", location, e.getMessage());
+            return new Loaded(current.rules, current.contentHash, now);
+        }
+    }
+
+    private DecisionRules compile(byte[] content) {
+        try {
+            return DecisionRules.compile(location, new StringReader(new String(content, StandardCharsets.UTF_8)), leadingPaths);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to compile decision rules from: " + location, e);
+        }
+    }
+
+    private byte[] read() {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream inputStream = resource.getInputStream()) {
+            return inputStream.readAllBytes();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read decision rules from: " + location, e);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Loaded {
+        final DecisionRules rules;
+        final String contentHash;
+        final long checkedAt;
+
+        Loaded(DecisionRules rules, String contentHash, long checkedAt) {
+            this.rules = rules;
+            this.contentHash = contentHash;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
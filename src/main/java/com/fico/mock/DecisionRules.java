@@ -0,0 +1,411 @@
+package com.fico.mock;
+
+import com.fico.mock.model.DecisionOutcome;
+import com.fico.mock.model.Decisioning;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * A decision rule table compiled into per-column indexes. Every column other than the reserved
+ * ones is a request path; each cell is a condition on the value at that path:
+ *
+ * <ul>
+ *   <li>empty or {@code *} - matches anything, including a missing field</li>
+ *   <li>{@code 700..850}, {@code ..579}, {@code 800..} - inclusive numeric range</li>
+ *   <li>{@code Smith} or {@code ONLINE|BRANCH} - case-insensitive exact match</li>
+ * </ul>
+ *
+ * Cells containing commas, such as a free-text {@code decisionReason}, are double-quoted as in RFC 4180,
+ * with {@code ""} for a literal quote; a quoted cell cannot span lines.
+ *
+ * Rules are tried in file order and the first rule whose conditions all hold wins. Exact values are
+ * looked up in a hash index and ranges in a table of elementary intervals, each yielding the set of
+ * rules a column allows; the matching rules are the intersection of those sets.
+ */
+final class DecisionRules {
+
+    static final String RULE_ID = "ruleId";
+    static final String DECISION_CODE = "decisionCode";
+    static final String DECISION_REASON = "decisionReason";
+    static final String CREDIT_LIMIT_AMOUNT = "creditLimitAmount";
+    static final String INTEREST_RATE = "interestRate";
+
+    private static final Set<String> RESERVED_COLUMNS = Set.of(
+            RULE_ID, DECISION_CODE, DECISION_REASON, CREDIT_LIMIT_AMOUNT, INTEREST_RATE);
+    private static final Rule DEFAULT_RULE = new Rule("DEFAULT", DecisionOutcome.APPROVED.getCode(), DecisionOutcome.APPROVED.getDecisioning());
+
+    private final String source;
+    private final Rule[] rules;
+    private final Column[] columns;
+    private final JsonFieldExtractor extractor;
+
+    private DecisionRules(String source, Rule[] rules, Column[] columns, JsonFieldExtractor extractor) {
+        this.source = source;
+        this.rules = rules;
+        this.columns = columns;
+        this.extractor = extractor;
+    }
+
+    public String getSource() { return source; }
+    public int size() { return rules.length; }
+
+    /**
+     * Returns the extractor for the request fields: the leading paths this table was compiled with,
+     * in order, followed by the rule columns
+     */
+    JsonFieldExtractor getExtractor() { return extractor; }
+
+    /**
+     * @param fields Field values read by {@link #getExtractor()}
+     * @return The first matching rule, or an approval when no rule matches
+     */
+    Rule evaluate(String[] fields) {
+        BitSet matches = new BitSet(rules.length);
+        matches.set(0, rules.length);
+        BitSet allowed = new BitSet(rules.length);
+        for (Column column : columns) {
+            column.allowed(fields[column.slot], allowed);
+            matches.and(allowed);
+            if (matches.isEmpty()) {
+                return DEFAULT_RULE;
+            }
+        }
+
+        int first = matches.nextSetBit(0);
+        return first < 0 ? DEFAULT_RULE : rules[first];
+    }
+
+    /**
+     * Compiles a CSV rule table. Blank lines and lines starting with '#' are ignored.
+     * @param source Name of the table, used in error messages
+     * @param csv Rule table with a header row
+     * @param leadingPaths Request paths to extract ahead of the rule columns (e.g., the application id)
+     */
+    static DecisionRules compile(String source, Reader csv, List<String> leadingPaths) throws IOException {
+        BufferedReader reader = new BufferedReader(csv);
+        String[] headers = null;
+        List<String[]> rows = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.stripLeading().startsWith("#")) {
+                continue;
+            }
+            String[] cells = cells(line, source + " line " + lineNumber);
+            if (headers == null) {
+                headers = cells;
+            } else {
+                rows.add(cells);
+                lineNumbers.add(lineNumber);
+            }
+        }
+
+        if (headers == null) {
+            throw new RuntimeException("Decision rule table has no header row: " + source);
+        }
+        int decisionCodeIndex = Arrays.asList(headers).indexOf(DECISION_CODE);
+        if (decisionCodeIndex < 0) {
+            throw new RuntimeException("Decision rule table has no " + DECISION_CODE + " column: " + source);
+        }
+
+        List<String> paths = new ArrayList<>(leadingPaths);
+        List<Integer> conditionIndexes = new ArrayList<>();
+        List<Integer> conditionSlots = new ArrayList<>();
+        for (int i = 0; i < headers.length; i++) {
+            if (!RESERVED_COLUMNS.contains(headers[i])) {
+                int slot = paths.indexOf(headers[i]);
+                if (slot < 0) {
+                    slot = paths.size();
+                    paths.add(headers[i]);
+                }
+                conditionIndexes.add(i);
+                conditionSlots.add(slot);
+            }
+        }
+
+        Rule[] rules = new Rule[rows.size()];
+        for (int r = 0; r < rows.size(); r++) {
+            String[] cells = rows.get(r);
+            if (cells.length != headers.length) {
+                throw new RuntimeException("Expected " + headers.length + " cells but found " + cells.length
+                        + " at " + source + " line " + lineNumbers.get(r));
+            }
+            rules[r] = rule(headers, cells, r, source + " line " + lineNumbers.get(r));
+        }
+
+        Column[] columns = new Column[conditionIndexes.size()];
+        for (int c = 0; c < columns.length; c++) {
+            int index = conditionIndexes.get(c);
+            columns[c] = Column.compile(conditionSlots.get(c), rows, index, lineNumbers, source + " column " + headers[index]);
+        }
+
+        return new DecisionRules(source, rules, columns, new JsonFieldExtractor(paths));
+    }
+
+    /**
+     * Splits one line into trimmed cells; the text of a quoted cell is kept as written
+     */
+    static String[] cells(String line, String location) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder quoted = new StringBuilder();
+        int i = 0;
+        while (true) {
+            while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (i < line.length() && line.charAt(i) == '"') {
+                quoted.setLength(0);
+                i++;
+                while (true) {
+                    if (i == line.length()) {
+                        throw new RuntimeException("Unterminated quoted cell at " + location);
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        quoted.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        quoted.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+                    i++;
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new RuntimeException("Unexpected text after quoted cell at " + location);
+                }
+                cells.add(quoted.toString());
+            } else {
+                int comma = line.indexOf(',', i);
+                int end = comma < 0 ? line.length() : comma;
+                cells.add(line.substring(i, end).trim());
+                i = end;
+            }
+
+            if (i == line.length()) {
+                return cells.toArray(new String[0]);
+            }
+            i++;
+        }
+    }
+
+    private static Rule rule(String[] headers, String[] cells, int row, String location) {
+        String ruleId = "RULE_" + (row + 1);
+        String decisionCode = null;
+        String decisionReason = null;
+        String creditLimitAmount = null;
+        String interestRate = null;
+        for (int i = 0; i < headers.length; i++) {
+            String cell = cells[i].isEmpty() ? null : cells[i];
+            switch (headers[i]) {
+                case RULE_ID: ruleId = cell != null ? cell : ruleId; break;
+                case DECISION_CODE: decisionCode = cell; break;
+                case DECISION_REASON: decisionReason = cell; break;
+                case CREDIT_LIMIT_AMOUNT: creditLimitAmount = cell; break;
+                case INTEREST_RATE: interestRate = cell; break;
+                default: break;
+            }
+        }
+
+        if (decisionCode == null) {
+            throw new RuntimeException("Missing " + DECISION_CODE + " at " + location);
+        }
+        DecisionOutcome outcome = DecisionOutcome.fromCode(decisionCode);
+        if (outcome != null && decisionReason == null && creditLimitAmount == null && interestRate == null) {
+            return new Rule(ruleId, outcome.getCode(), outcome.getDecisioning());
+        }
+
+        String code = outcome != null ? outcome.getCode() : decisionCode;
+        try {
+            return new Rule(ruleId, code, Decisioning.of(
+                    code,
+                    decisionReason != null ? decisionReason : outcome != null ? outcome.getReason() : "Unknown decision",
+                    creditLimitAmount != null ? Integer.parseInt(creditLimitAmount) : outcome != null ? outcome.getCreditLimit() : 0,
+                    interestRate != null ? Double.parseDouble(interestRate) : outcome != null ? outcome.getInterestRate() : 0.0));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid " + CREDIT_LIMIT_AMOUNT + " or " + INTEREST_RATE + " at " + location, e);
+        }
+    }
+
+    /**
+     * A rule's identity and the pre-built decisioning block it answers with
+     */
+    public static class Rule {
+        private final String ruleId;
+        private final String decisionCode;
+        private final Decisioning decisioning;
+
+        public Rule(String ruleId, String decisionCode, Decisioning decisioning) {
+            this.ruleId = ruleId;
+            this.decisionCode = decisionCode;
+            this.decisioning = decisioning;
+        }
+
+        public String getRuleId() { return ruleId; }
+        public String getDecisionCode() { return decisionCode; }
+        public Decisioning getDecisioning() { return decisioning; }
+    }
+
+    /**
+     * Index of one condition column: the rules it leaves unconstrained, the rules per exact value
+     * and, for range cells, the rules covering each elementary interval between range endpoints
+     */
+    private static final class Column {
+        final int slot;
+        final BitSet wildcards;
+        final Map<String, BitSet> exact;
+        final double[] points;
+        final BitSet[] segments;
+
+        private Column(int slot, BitSet wildcards, Map<String, BitSet> exact, double[] points, BitSet[] segments) {
+            this.slot = slot;
+            this.wildcards = wildcards;
+            this.exact = exact;
+            this.points = points;
+            this.segments = segments;
+        }
+
+        /**
+         * Sets {@code allowed} to the rules whose condition in this column holds for the value. Range cells only
+         * match values that are numbers; the check is exception-free, as it runs for every request.
+         */
+        void allowed(String value, BitSet allowed) {
+            allowed.clear();
+            allowed.or(wildcards);
+            if (value == null) {
+                return;
+            }
+
+            BitSet exactRules = exact.get(value.toLowerCase(Locale.ROOT));
+            if (exactRules != null) {
+                allowed.or(exactRules);
+            }
+            if (segments != null) {
+                double number = number(value);
+                if (!Double.isNaN(number)) {
+                    allowed.or(segments[segment(number)]);
+                }
+            }
+        }
+
+        /**
+         * Parses a decimal number with optional sign, fraction and exponent (e.g., "720", "-1.5", "1e6"),
+         * checking the syntax first so that text which is not a number gives NaN instead of an exception
+         */
+        static double number(String value) {
+            String text = value.trim();
+            int i = text.startsWith("-") || text.startsWith("+") ? 1 : 0;
+            int digits = 0;
+            while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                i++;
+                digits++;
+            }
+            if (i < text.length() && text.charAt(i) == '.') {
+                i++;
+                while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                    i++;
+                    digits++;
+                }
+            }
+            if (digits == 0) {
+                return Double.NaN;
+            }
+            if (i < text.length() && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+                i++;
+                if (i < text.length() && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                    i++;
+                }
+                int exponentDigits = 0;
+                while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                    i++;
+                    exponentDigits++;
+                }
+                if (exponentDigits == 0) {
+                    return Double.NaN;
+                }
+            }
+            return i == text.length() ? Double.parseDouble(text) : Double.NaN;
+        }
+
+        /**
+         * Elementary intervals alternate open gaps and endpoints: (-inf, p0), [p0], (p0, p1), [p1], ... (pn, +inf)
+         */
+        private int segment(double number) {
+            int index = Arrays.binarySearch(points, number);
+            return index >= 0 ? 2 * index + 1 : 2 * (-index - 1);
+        }
+
+        static Column compile(int slot, List<String[]> rows, int cellIndex, List<Integer> lineNumbers, String location) {
+            BitSet wildcards = new BitSet(rows.size());
+            Map<String, BitSet> exact = new HashMap<>();
+            List<double[]> ranges = new ArrayList<>();
+            List<Integer> rangeRules = new ArrayList<>();
+            TreeSet<Double> endpoints = new TreeSet<>();
+
+            for (int r = 0; r < rows.size(); r++) {
+                String cell = rows.get(r)[cellIndex];
+                if (cell.isEmpty() || cell.equals("*")) {
+                    wildcards.set(r);
+                } else if (cell.contains("..")) {
+                    double[] range = range(cell, location + " line " + lineNumbers.get(r));
+                    ranges.add(range);
+                    rangeRules.add(r);
+                    if (range[0] != Double.NEGATIVE_INFINITY) {
+                        endpoints.add(range[0]);
+                    }
+                    if (range[1] != Double.POSITIVE_INFINITY) {
+                        endpoints.add(range[1]);
+                    }
+                } else {
+                    for (String value : cell.split("\\|")) {
+                        exact.computeIfAbsent(value.trim().toLowerCase(Locale.ROOT), key -> new BitSet()).set(r);
+                    }
+                }
+            }
+
+            if (ranges.isEmpty()) {
+                return new Column(slot, wildcards, exact, null, null);
+            }
+
+            double[] points = endpoints.stream().mapToDouble(Double::doubleValue).toArray();
+            BitSet[] segments = new BitSet[2 * points.length + 1];
+            for (int s = 0; s < segments.length; s++) {
+                segments[s] = new BitSet(rows.size());
+            }
+            Column column = new Column(slot, wildcards, exact, points, segments);
+            for (int i = 0; i < ranges.size(); i++) {
+                double[] range = ranges.get(i);
+                int from = range[0] == Double.NEGATIVE_INFINITY ? 0 : column.segment(range[0]);
+                int to = range[1] == Double.POSITIVE_INFINITY ? segments.length - 1 : column.segment(range[1]);
+                for (int s = from; s <= to; s++) {
+                    segments[s].set(rangeRules.get(i));
+                }
+            }
+            return column;
+        }
+
+        private static double[] range(String cell, String location) {
+            int separator = cell.indexOf("..");
+            String low = cell.substring(0, separator).trim();
+            String high = cell.substring(separator + 2).trim();
+            try {
+                double[] range = {
+                        low.isEmpty() ? Double.NEGATIVE_INFINITY : Double.parseDouble(low),
+                        high.isEmpty() ? Double.POSITIVE_INFINITY : Double.parseDouble(high)};
+                if (range[0] > range[1]) {
+                    throw new RuntimeException("Empty range " + cell + " at " + location);
+                }
+                return range;
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid range " + cell + " at " + location, e);
+            }
+        }
+    }
+}
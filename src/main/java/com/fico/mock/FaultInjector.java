@@ -0,0 +1,146 @@
+package com.fico.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fico.mock.model.ErrorResponse;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Servlet filter that delays and fails mock endpoint calls according to per-endpoint profiles:
+ *
+ * <pre>
+ * mock.faults.transaction.latency=lognormal:40,0.6
+ * mock.faults.transaction.error-rate=0.01
+ * mock.faults.transaction.error-status=503
+ * </pre>
+ *
+ * Delayed requests are put into async mode and re-dispatched by a single scheduler thread when
+ * their delay has elapsed, so no request thread is held while a request waits. A fault is decided once per
+ * request; later async dispatches of the same request pass through.
+ */
+public class FaultInjector implements Filter {
+
+    /** Endpoint names used in mock.faults.&lt;name&gt;.* properties, and the paths they apply to */
+    static final Map<String, String> ENDPOINTS = Map.of(
+            "transaction", "/api/plor/v1/transaction",
+            "batch", "/api/plor/v1/transaction/batch",
+            "decision", "/api/dm/decision",
+            "token", "/oauth/token");
+
+    private static final String FAULT_ATTRIBUTE = FaultInjector.class.getName() + ".fault";
+    private static final String PROPERTY_PREFIX = "mock.faults.";
+    private static final long ASYNC_TIMEOUT_MARGIN_MILLIS = 30_000;
+
+    private final Map<String, Profile> profiles;
+    private final MockMetrics metrics;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    FaultInjector(Map<String, Profile> profiles, MockMetrics metrics) {
+        this.profiles = Map.copyOf(profiles);
+        this.metrics = metrics;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mock-fault-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Reads the mock.faults.* profiles for every known endpoint
+     * @return Profiles keyed by request path; empty when no faults are configured
+     */
+    static Map<String, Profile> profiles(Environment environment) {
+        Map<String, Profile> profiles = new HashMap<>();
+        for (Map.Entry<String, String> endpoint : ENDPOINTS.entrySet()) {
+            String prefix = PROPERTY_PREFIX + endpoint.getKey() + ".";
+            String latency = environment.getProperty(prefix + "latency");
+            double errorRate = environment.getProperty(prefix + "error-rate", Double.class, 0.0);
+            int errorStatus = environment.getProperty(prefix + "error-status", Integer.class, 503);
+            if (!(errorRate >= 0 && errorRate <= 1)) {
+                throw new RuntimeException(prefix + "error-rate must be between 0 and 1: " + errorRate);
+            }
+            if (errorStatus < 100 || errorStatus > 599) {
+                throw new RuntimeException(prefix + "error-status must be an HTTP status between 100 and 599: " + errorStatus);
+            }
+            if (latency != null && !latency.isBlank() || errorRate > 0) {
+                LatencyDistribution distribution = latency == null || latency.isBlank() ? null : LatencyDistribution.parse(latency);
+                profiles.put(endpoint.getValue(), new Profile(distribution, errorRate, errorStatus));
+            }
+        }
+        return profiles;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        Object decided = request.getAttribute(FAULT_ATTRIBUTE);
+        if (decided != null) {
+            request.removeAttribute(FAULT_ATTRIBUTE);
+            proceed((Boolean) decided, httpRequest, (HttpServletResponse) response, chain);
+            return;
+        }
+
+        Profile profile = profiles.get(httpRequest.getRequestURI());
+        if (profile == null || request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Async dispatches not started here (e.g., the completion of a streamed response) were already decided
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean fail = profile.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < profile.errorRate;
+        long delayNanos = profile.latency != null ? profile.latency.sampleNanos() : 0;
+        if (delayNanos <= 0) {
+            proceed(fail, httpRequest, (HttpServletResponse) response, chain);
+            return;
+        }
+
+        metrics.recordInjectedDelay(httpRequest.getRequestURI(), delayNanos);
+        request.setAttribute(FAULT_ATTRIBUTE, fail);
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(TimeUnit.NANOSECONDS.toMillis(delayNanos) + ASYNC_TIMEOUT_MARGIN_MILLIS);
+        scheduler.schedule((Runnable) asyncContext::dispatch, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void proceed(boolean fail, HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!fail) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Profile profile = profiles.get(request.getRequestURI());
+        metrics.recordInjectedError(request.getRequestURI());
+        response.setStatus(profile.errorStatus);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("ERROR", "Injected fault for " + request.getRequestURI(), Timestamps.now()));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Latency distribution (null for no delay) and error injection settings of one endpoint
+     */
+    static class Profile {
+        final LatencyDistribution latency;
+        final double errorRate;
+        final int errorStatus;
+
+        Profile(LatencyDistribution latency, double errorRate, int errorStatus) {
+            this.latency = latency;
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+        }
+    }
+}
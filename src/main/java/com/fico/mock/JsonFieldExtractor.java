@@ -0,0 +1,132 @@
+package com.fico.mock;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Reads a fixed set of scalar fields from a JSON document with a streaming parser. The paths are
+ * compiled into a trie, so objects and arrays no path descends into are skipped without being
+ * materialised, and parsing stops as soon as every field has been found.
+ */
+final class JsonFieldExtractor {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final List<String> paths;
+    private final Node root = new Node();
+
+    /**
+     * @param paths Dot-notation paths with optional array indexes (e.g., "applicants[0].firstName")
+     */
+    JsonFieldExtractor(List<String> paths) {
+        this.paths = List.copyOf(paths);
+        for (int slot = 0; slot < this.paths.size(); slot++) {
+            add(this.paths.get(slot), slot);
+        }
+    }
+
+    List<String> getPaths() { return paths; }
+
+    /**
+     * @param inputStream JSON document whose root is an object
+     * @return The text of each field in path order; null where the field is absent, null or not a scalar
+     */
+    String[] extract(InputStream inputStream) throws IOException {
+        String[] values = new String[paths.size()];
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Request body is not a JSON object");
+            }
+            read(parser, root, values, values.length);
+        }
+        return values;
+    }
+
+    /**
+     * Reads the value the parser is positioned on
+     * @return The number of fields still to be found
+     */
+    private static int read(JsonParser parser, Node node, String[] values, int remaining) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT && node.fields != null) {
+            while (remaining > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+                Node child = node.fields.get(parser.currentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    remaining = read(parser, child, values, remaining);
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY && node.items != null) {
+            int index = 0;
+            JsonToken item;
+            while (remaining > 0 && (item = parser.nextToken()) != JsonToken.END_ARRAY && item != null) {
+                Node child = node.items.get(index++);
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    remaining = read(parser, child, values, remaining);
+                }
+            }
+        } else {
+            if (node.slot >= 0 && token != null && token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                values[node.slot] = parser.getText();
+                remaining--;
+            }
+            parser.skipChildren();
+        }
+        return remaining;
+    }
+
+    private void add(String path, int slot) {
+        Node node = root;
+        for (String segment : path.split("\\.")) {
+            int bracket = segment.indexOf('[');
+            String field = bracket < 0 ? segment : segment.substring(0, bracket);
+            node = node.field(field);
+
+            while (bracket >= 0) {
+                int close = segment.indexOf(']', bracket);
+                if (close < 0) {
+                    throw new RuntimeException("Invalid array access notation: " + path);
+                }
+                try {
+                    node = node.item(Integer.parseInt(segment.substring(bracket + 1, close)));
+                } catch (NumberFormatException e) {
+                    throw new RuntimeException("Invalid array access notation: " + path, e);
+                }
+                bracket = segment.indexOf('[', close);
+            }
+        }
+        if (node.slot >= 0) {
+            throw new RuntimeException("Duplicate field path: " + path);
+        }
+        node.slot = slot;
+    }
+
+    private static final class Node {
+        Map<String, Node> fields;
+        Map<Integer, Node> items;
+        int slot = -1;
+
+        Node field(String name) {
+            if (fields == null) {
+                fields = new HashMap<>();
+            }
+            return fields.computeIfAbsent(name, key -> new Node());
+        }
+
+        Node item(int index) {
+            if (items == null) {
+                items = new HashMap<>();
+            }
+            return items.computeIfAbsent(index, key -> new Node());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.fico.mock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A distribution of injected response delays, parsed from a spec such as:
+ *
+ * <ul>
+ *   <li>{@code fixed:50} - always 50ms</li>
+ *   <li>{@code uniform:20..200} - uniformly between 20ms and 200ms</li>
+ *   <li>{@code lognormal:40,0.6} - log-normal with a 40ms median and sigma 0.6, giving a long tail</li>
+ *   <li>{@code histogram:10=70,50=25,400=4,2000=1} - latencies in ms replayed with the given relative frequencies</li>
+ * </ul>
+ */
+@FunctionalInterface
+interface LatencyDistribution {
+
+    long sampleNanos();
+
+    static LatencyDistribution parse(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            throw new RuntimeException("Latency spec must look like <type>:<parameters>: " + spec);
+        }
+        String type = spec.substring(0, colon).trim();
+        String parameters = spec.substring(colon + 1).trim();
+
+        try {
+            switch (type) {
+                case "fixed": {
+                    long nanos = millisToNanos(Double.parseDouble(parameters));
+                    return () -> nanos;
+                }
+                case "uniform": {
+                    String[] bounds = parameters.split("\\.\\.", -1);
+                    if (bounds.length != 2) {
+                        throw new RuntimeException("Uniform latency must look like uniform:<min>..<max>: " + spec);
+                    }
+                    long min = millisToNanos(Double.parseDouble(bounds[0].trim()));
+                    long max = millisToNanos(Double.parseDouble(bounds[1].trim()));
+                    if (max < min) {
+                        throw new RuntimeException("Empty uniform range: " + spec);
+                    }
+                    return () -> min + (long) (ThreadLocalRandom.current().nextDouble() * (max - min));
+                }
+                case "lognormal": {
+                    String[] values = parameters.split(",", -1);
+                    if (values.length != 2) {
+                        throw new RuntimeException("Lognormal latency must look like lognormal:<median>,<sigma>: " + spec);
+                    }
+                    double medianNanos = millisToNanos(Double.parseDouble(values[0].trim()));
+                    double sigma = Double.parseDouble(values[1].trim());
+                    if (!(sigma >= 0) || Double.isInfinite(sigma)) {
+                        throw new RuntimeException("Lognormal sigma must be a non-negative number: " + spec);
+                    }
+                    return () -> (long) (medianNanos * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+                }
+                case "histogram":
+                    return new Histogram(parameters);
+                default:
+                    throw new RuntimeException("Unknown latency distribution '" + type + "': " + spec);
+            }
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid latency spec: " + spec, e);
+        }
+    }
+
+    private static long millisToNanos(double millis) {
+        if (!(millis >= 0) || Double.isInfinite(millis)) {
+            throw new RuntimeException("Latency must be a non-negative number of milliseconds: " + millis);
+        }
+        return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Picks a bucket with probability proportional to its weight by binary search over cumulative weights
+     */
+    final class Histogram implements LatencyDistribution {
+        private final long[] latencies;
+        private final double[] cumulativeWeights;
+
+        Histogram(String buckets) {
+            String[] entries = buckets.split(",");
+            latencies = new long[entries.length];
+            cumulativeWeights = new double[entries.length];
+            double total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                String[] bucket = entries[i].split("=", -1);
+                if (bucket.length != 2) {
+                    throw new RuntimeException("Histogram bucket must look like <latency>=<weight>: " + entries[i]);
+                }
+                double weight = Double.parseDouble(bucket[1].trim());
+                if (!(weight >= 0) || Double.isInfinite(weight)) {
+                    throw new RuntimeException("Histogram weight must be a non-negative number: " + entries[i]);
+                }
+                latencies[i] = millisToNanos(Double.parseDouble(bucket[0].trim()));
+                total += weight;
+                cumulativeWeights[i] = total;
+            }
+            if (total <= 0) {
+                throw new RuntimeException("Histogram has no weight: " + buckets);
+            }
+        }
+
+        @Override
+        public long sampleNanos() {
+            double target = ThreadLocalRandom.current().nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            // First bucket whose cumulative weight exceeds the target, so buckets of weight 0 are never picked
+            int low = 0;
+            int high = cumulativeWeights.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulativeWeights[mid] > target) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return latencies[low];
+        }
+    }
+}
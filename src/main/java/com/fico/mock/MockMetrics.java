@@ -0,0 +1,264 @@
+package com.fico.mock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters for the mock's own work, published through actuator (e.g., /actuator/prometheus):
+ *
+ * <ul>
+ *   <li>{@code mock.requests} - handling time per endpoint and status, with a percentile histogram</li>
+ *   <li>{@code mock.requests.active} - requests being handled per endpoint</li>
+ *   <li>{@code mock.request.size}, {@code mock.response.size} - body sizes in bytes</li>
+ *   <li>{@code mock.decisions} - transaction decisions per decision code</li>
+ *   <li>{@code mock.faults.delay}, {@code mock.faults.errors} - latency and errors injected by {@link FaultInjector}</li>
+ * </ul>
+ *
+ * The {@link #filter()} runs after fault injection, so {@code mock.requests} excludes injected delays; comparing it
+ * with client-side timings shows whether a slow run was caused by the mock or by the system under test.
+ */
+public class MockMetrics {
+
+    private static final String MEASURED_ATTRIBUTE = MockMetrics.class.getName() + ".measured";
+
+    private final MeterRegistry registry;
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+    private final Map<String, Counter> decisions = new ConcurrentHashMap<>();
+
+    public MockMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Map.Entry<String, String> endpoint : FaultInjector.ENDPOINTS.entrySet()) {
+            endpoints.put(endpoint.getValue(), new Endpoint(registry, endpoint.getKey()));
+        }
+        endpoints.put("/health", new Endpoint(registry, "health"));
+    }
+
+    /**
+     * Request paths of the endpoints {@link #filter()} measures
+     */
+    Set<String> getPaths() {
+        return endpoints.keySet();
+    }
+
+    /**
+     * Returns the servlet filter that times requests and measures their bodies
+     */
+    Filter filter() {
+        return this::measure;
+    }
+
+    void recordDecision(String decisionCode) {
+        decisions.computeIfAbsent(decisionCode, code -> Counter.builder("mock.decisions")
+                .description("Transaction decisions by decision code")
+                .tag("code", code)
+                .register(registry)).increment();
+    }
+
+    void recordInjectedDelay(String path, long delayNanos) {
+        Endpoint endpoint = endpoints.get(path);
+        if (endpoint != null) {
+            endpoint.injectedDelay.record(delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void recordInjectedError(String path) {
+        Endpoint endpoint = endpoints.get(path);
+        if (endpoint != null) {
+            endpoint.injectedErrors.increment();
+        }
+    }
+
+    private void measure(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        Endpoint endpoint = endpoints.get(httpRequest.getRequestURI());
+        if (endpoint == null || request.getAttribute(MEASURED_ATTRIBUTE) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(MEASURED_ATTRIBUTE, Boolean.TRUE);
+
+        long contentLength = request.getContentLengthLong();
+        if (contentLength >= 0) {
+            endpoint.requestSize.record(contentLength);
+        }
+
+        CountingResponse countingResponse = new CountingResponse((HttpServletResponse) response);
+        endpoint.active.incrementAndGet();
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, countingResponse);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Streamed responses (e.g., batches) are written after the filter chain returns
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(endpoint, countingResponse, start);
+                    }
+
+                    // The container completes the request after a timeout or error, so onComplete still runs
+                    // exactly once and records the final status instead of the one set before the failure
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(endpoint, countingResponse, start);
+            }
+        }
+    }
+
+    private void record(Endpoint endpoint, CountingResponse countingResponse, long start) {
+        long elapsed = System.nanoTime() - start;
+        endpoint.active.decrementAndGet();
+        countingResponse.flushWriter();
+        endpoint.timer(registry, countingResponse.getStatus()).record(elapsed, TimeUnit.NANOSECONDS);
+        endpoint.responseSize.record(countingResponse.bytesWritten);
+    }
+
+    private static final class Endpoint {
+        final String name;
+        final AtomicInteger active = new AtomicInteger();
+        final DistributionSummary requestSize;
+        final DistributionSummary responseSize;
+        final Timer injectedDelay;
+        final Counter injectedErrors;
+        final Map<Integer, Timer> timers = new ConcurrentHashMap<>();
+
+        Endpoint(MeterRegistry registry, String name) {
+            this.name = name;
+            Gauge.builder("mock.requests.active", active, AtomicInteger::get)
+                    .description("Requests currently being handled by the mock")
+                    .tag("endpoint", name)
+                    .register(registry);
+            this.requestSize = size(registry, "mock.request.size", "Request body size", name);
+            this.responseSize = size(registry, "mock.response.size", "Response body size", name);
+            this.injectedDelay = Timer.builder("mock.faults.delay")
+                    .description("Latency injected before handling a request")
+                    .tag("endpoint", name)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.injectedErrors = Counter.builder("mock.faults.errors")
+                    .description("Error responses injected instead of handling a request")
+                    .tag("endpoint", name)
+                    .register(registry);
+        }
+
+        Timer timer(MeterRegistry registry, int status) {
+            return timers.computeIfAbsent(status, key -> Timer.builder("mock.requests")
+                    .description("Time the mock spends handling a request, excluding injected latency")
+                    .tag("endpoint", name)
+                    .tag("status", Integer.toString(key))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+
+        private static DistributionSummary size(MeterRegistry registry, String meter, String description, String name) {
+            return DistributionSummary.builder(meter)
+                    .description(description)
+                    .baseUnit("bytes")
+                    .tag("endpoint", name)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Counts the body bytes written through the response's output stream or writer
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        long bytesWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+    }
+}
@@ -1,55 +1,184 @@
 package com.fico.mock;
 
+import com.fico.mock.model.CreditDecisioning;
+import com.fico.mock.model.ErrorResponse;
+import com.fico.mock.model.TokenResponse;
+import com.fico.mock.model.TransactionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 
 @SpringBootApplication
 @RestController
 public class MockServerApplication {
 
+    private static final String TRANSACTION_PATH = "/api/plor/v1/transaction";
+    private static final String BATCH_PATH = TRANSACTION_PATH + "/batch";
+
+    /** Read from every transaction request ahead of the decision rule columns */
+    private static final String APPLICATION_ID_PATH = "application.applicationId";
+
+    private final DecisionRuleEngine decisionRules;
+    private final MockMetrics metrics;
+    private final TokenStore tokenStore;
+    private final RecordReplay recordReplay;
+    private final BatchProcessor batchProcessor;
+
+    public MockServerApplication(DecisionRuleEngine decisionRules, MockMetrics metrics, TokenStore tokenStore,
+                                 RecordReplay recordReplay, BatchProcessor batchProcessor) {
+        this.decisionRules = decisionRules;
+        this.metrics = metrics;
+        this.tokenStore = tokenStore;
+        this.recordReplay = recordReplay;
+        this.batchProcessor = batchProcessor;
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(MockServerApplication.class, args);
     }
 
+    @Bean
+    static DecisionRuleEngine decisionRuleEngine(@Value("${mock.rules.location:classpath:decision_rules.csv}") String location) {
+        return new DecisionRuleEngine(location, List.of(APPLICATION_ID_PATH));
+    }
+
+    @Bean
+    static MockMetrics mockMetrics(MeterRegistry meterRegistry) {
+        return new MockMetrics(meterRegistry);
+    }
+
+    @Bean
+    static FilterRegistrationBean<FaultInjector> faultInjector(Environment environment, MockMetrics metrics) {
+        Map<String, FaultInjector.Profile> profiles = FaultInjector.profiles(environment);
+        FilterRegistrationBean<FaultInjector> registration = new FilterRegistrationBean<>(new FaultInjector(profiles, metrics));
+        registration.setUrlPatterns(profiles.keySet());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setAsyncSupported(true);
+        registration.setEnabled(!profiles.isEmpty());
+        registration.setOrder(1);
+        return registration;
+    }
+
+    /**
+     * Ordered after the fault injector, so that injected delays are not counted as mock processing time
+     */
+    @Bean
+    static FilterRegistrationBean<Filter> mockMetricsFilter(MockMetrics metrics) {
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(metrics.filter());
+        registration.setUrlPatterns(metrics.getPaths());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setAsyncSupported(true);
+        registration.setOrder(2);
+        return registration;
+    }
+
+    @Bean
+    static TokenStore tokenStore(@Value("${mock.oauth.expires-in:3600}") long expiresInSeconds,
+                                 @Value("${mock.oauth.max-tokens:100000}") int maxTokens) {
+        return new TokenStore(expiresInSeconds, maxTokens);
+    }
+
+    /**
+     * Checks Bearer tokens on the API endpoints; requests without a token pass unless mock.oauth.require-token is set
+     */
+    @Bean
+    static FilterRegistrationBean<Filter> bearerTokenFilter(TokenStore tokenStore, @Value("${mock.oauth.require-token:false}") boolean requireToken) {
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(tokenStore.filter(requireToken));
+        registration.setUrlPatterns(List.of(TRANSACTION_PATH, BATCH_PATH, "/api/dm/decision"));
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setAsyncSupported(true);
+        registration.setOrder(3);
+        return registration;
+    }
+
+    @Bean
+    static RecordReplay recordReplay(@Value("${mock.mode:live}") String mode,
+                                     @Value("${mock.recording.file:build/mock-recording.log}") String file,
+                                     @Value("${mock.recording.key-paths:application.applicationId,applicants[0].firstName,applicants[0].lastName}") List<String> keyPaths,
+                                     @Value("${mock.recording.upstream:}") String upstream,
+                                     @Value("${mock.recording.upstream-authorization:}") String upstreamAuthorization) throws IOException {
+        return RecordReplay.create(mode, Path.of(file), keyPaths, upstream, upstreamAuthorization);
+    }
+
+    @Bean
+    static BatchProcessor batchProcessor(@Value("${mock.batch.threads:8}") int threads,
+                                         @Value("${mock.batch.max-in-flight:64}") int maxInFlight) {
+        return new BatchProcessor(threads, maxInFlight);
+    }
+
     @PostMapping("/oauth/token")
-    public ResponseEntity<Map<String, Object>> authenticate(@RequestBody Map<String, Object> request) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("access_token", "mock_access_token_" + System.currentTimeMillis());
-        response.put("token_type", "Bearer");
-        response.put("expires_in", 3600);
-        response.put("scope", "read write");
-        
-        return ResponseEntity.ok(response);
+    public ResponseEntity<TokenResponse> authenticate(@RequestBody Map<String, Object> request) {
+        return ResponseEntity.ok(tokenStore.issue("read write"));
     }
 
-    @PostMapping("/api/plor/v1/transaction")
-    public ResponseEntity<Map<String, Object>> processTransaction(@RequestBody Map<String, Object> request) {
+    @PostMapping(TRANSACTION_PATH)
+    public ResponseEntity<?> processTransaction(InputStream body) throws IOException {
+        if (recordReplay.isActive()) {
+            return recordReplay.handle(TRANSACTION_PATH, body.readAllBytes(), bytes -> decideTransaction(new ByteArrayInputStream(bytes)));
+        }
+        return decideTransaction(body);
+    }
+
+    /**
+     * Accepts a JSON array or an NDJSON stream of transaction requests and streams back one NDJSON line
+     * per request, in completion order: {"index": 0, "status": 200, "response": {...}}
+     */
+    @PostMapping(BATCH_PATH)
+    public ResponseEntity<StreamingResponseBody> processBatch(InputStream body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> batchProcessor.process(body, output, this::processBatchItem));
+    }
+
+    private ResponseEntity<?> processBatchItem(byte[] body) {
+        if (!recordReplay.isActive()) {
+            return decideTransaction(new ByteArrayInputStream(body));
+        }
         try {
-            String applicationId = extractApplicationId(request);
-            String firstName = extractFirstName(request);
-            String lastName = extractLastName(request);
+            return recordReplay.handle(TRANSACTION_PATH, body, bytes -> decideTransaction(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<?> decideTransaction(InputStream body) {
+        try {
+            DecisionRules rules = decisionRules.current();
+            String[] fields = rules.getExtractor().extract(body);
+            String applicationId = fields[0] != null ? fields[0] : "DEFAULT_APP_ID";
+            String timestamp = Timestamps.now();
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("transactionId", "TXN_" + System.currentTimeMillis());
-            response.put("status", "SUCCESS");
-            response.put("timestamp", new Date().toString());
+            DecisionRules.Rule rule = rules.evaluate(fields);
+            metrics.recordDecision(rule.getDecisionCode());
             
-            Map<String, Object> creditDecisioning = createCreditDecisioningResponse(firstName, lastName, applicationId);
-            response.put("creditDecisioning", creditDecisioning);
+            TransactionResponse response = new TransactionResponse(
+                    "TXN_" + System.currentTimeMillis(),
+                    "SUCCESS",
+                    timestamp,
+                    createCreditDecisioningResponse(rule, applicationId, timestamp));
             
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("status", "ERROR");
-            errorResponse.put("message", "Processing failed: " + e.getMessage());
-            errorResponse.put("timestamp", new Date().toString());
-            
+            ErrorResponse errorResponse = new ErrorResponse("ERROR", "Processing failed: " + e.getMessage(), Timestamps.now());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
@@ -59,7 +188,7 @@ public class MockServerApplication {
         Map<String, Object> response = new HashMap<>();
         response.put("decisionId", "DEC_" + System.currentTimeMillis());
         response.put("status", "COMPLETED");
-        response.put("timestamp", new Date().toString());
+        response.put("timestamp", Timestamps.now());
         
         Map<String, Object> decision = new HashMap<>();
         decision.put("outcome", "APPROVED");
@@ -75,100 +204,11 @@ public class MockServerApplication {
     public ResponseEntity<Map<String, String>> health() {
         Map<String, String> response = new HashMap<>();
         response.put("status", "UP");
-        response.put("timestamp", new Date().toString());
+        response.put("timestamp", Timestamps.now());
         return ResponseEntity.ok(response);
     }
 
-    private String extractApplicationId(Map<String, Object> request) {
-        if (request.containsKey("application")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> application = (Map<String, Object>) request.get("application");
-            return (String) application.get("applicationId");
-        }
-        return "DEFAULT_APP_ID";
-    }
-
-    private String extractFirstName(Map<String, Object> request) {
-        if (request.containsKey("applicants")) {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> applicants = (List<Map<String, Object>>) request.get("applicants");
-            if (!applicants.isEmpty()) {
-                return (String) applicants.get(0).get("firstName");
-            }
-        }
-        return "John";
-    }
-
-    private String extractLastName(Map<String, Object> request) {
-        if (request.containsKey("applicants")) {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> applicants = (List<Map<String, Object>>) request.get("applicants");
-            if (!applicants.isEmpty()) {
-                return (String) applicants.get(0).get("lastName");
-            }
-        }
-        return "Doe";
-    }
-
-    private Map<String, Object> createCreditDecisioningResponse(String firstName, String lastName, String applicationId) {
-        Map<String, Object> creditDecisioning = new HashMap<>();
-        
-        Map<String, Object> decisioning = new HashMap<>();
-        List<Map<String, Object>> subProductDecisions = new ArrayList<>();
-        
-        Map<String, Object> subProductDecision = new HashMap<>();
-        
-        Map<String, Object> decisionSummary = new HashMap<>();
-        String decisionCode = determineDecisionCode(firstName, lastName);
-        decisionSummary.put("automatedDecisionCode", decisionCode);
-        decisionSummary.put("decisionCode", decisionCode);
-        decisionSummary.put("decisionReason", getDecisionReason(decisionCode));
-        
-        Map<String, Object> creditLineAssignment = new HashMap<>();
-        int creditLimit = determineCreditLimit(decisionCode);
-        creditLineAssignment.put("creditLimitAmount", creditLimit);
-        creditLineAssignment.put("interestRate", decisionCode.equals("A") ? 12.99 : 0.0);
-        
-        subProductDecision.put("decisionSummary", decisionSummary);
-        subProductDecision.put("creditLineAssignment", creditLineAssignment);
-        subProductDecision.put("productCode", "CC001");
-        
-        subProductDecisions.add(subProductDecision);
-        decisioning.put("subProductDecisions", subProductDecisions);
-        
-        creditDecisioning.put("decisioning", decisioning);
-        creditDecisioning.put("applicationId", applicationId);
-        creditDecisioning.put("processedTimestamp", new Date().toString());
-        
-        return creditDecisioning;
-    }
-
-    private String determineDecisionCode(String firstName, String lastName) {
-        if ("Jane".equalsIgnoreCase(firstName) && "Smith".equalsIgnoreCase(lastName)) {
-            return "D";
-        } else if ("Risk".equalsIgnoreCase(lastName)) {
-            return "D";
-        } else if ("Pending".equalsIgnoreCase(lastName)) {
-            return "P";
-        }
-        return "A";
-    }
-
-    private String getDecisionReason(String decisionCode) {
-        switch (decisionCode) {
-            case "A": return "Approved - Good credit profile";
-            case "D": return "Declined - High risk profile";
-            case "P": return "Pending - Manual review required";
-            default: return "Unknown decision";
-        }
-    }
-
-    private int determineCreditLimit(String decisionCode) {
-        switch (decisionCode) {
-            case "A": return 15000;
-            case "D": return 0;
-            case "P": return 5000;
-            default: return 0;
-        }
+    CreditDecisioning createCreditDecisioningResponse(DecisionRules.Rule rule, String applicationId, String timestamp) {
+        return new CreditDecisioning(rule.getDecisioning(), applicationId, timestamp);
     }
 }
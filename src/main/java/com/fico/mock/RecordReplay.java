@@ -0,0 +1,189 @@
+package com.fico.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Record and replay of mock responses, keyed by a normalised form of the request:
+ *
+ * <ul>
+ *   <li>{@code live} - requests are answered by the mock as usual</li>
+ *   <li>{@code record} - responses from the upstream service (or the mock itself when no upstream is set)
+ *       are returned and appended to the {@link RecordingLog}</li>
+ *   <li>{@code replay} - recorded responses are served from the memory-mapped {@link ReplayStore};
+ *       requests that were never recorded fall back to the mock</li>
+ * </ul>
+ *
+ * The key is the request path plus the trimmed, lower-cased values of the configured key paths.
+ */
+public class RecordReplay implements Closeable {
+
+    public enum Mode { LIVE, RECORD, REPLAY }
+
+    static final String REPLAY_HEADER = "X-Mock-Replay";
+
+    private static final Logger log = LoggerFactory.getLogger(RecordReplay.class);
+    private static final char SEPARATOR = '\u001f';
+
+    private final Mode mode;
+    private final JsonFieldExtractor keyFields;
+    private final RecordingLog recordingLog;
+    private final ReplayStore replayStore;
+    private final URI upstream;
+    private final String upstreamAuthorization;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RecordReplay(Mode mode, List<String> keyPaths, RecordingLog recordingLog, ReplayStore replayStore,
+                         URI upstream, String upstreamAuthorization) {
+        this.mode = mode;
+        this.keyFields = new JsonFieldExtractor(keyPaths);
+        this.recordingLog = recordingLog;
+        this.replayStore = replayStore;
+        this.upstream = upstream;
+        this.upstreamAuthorization = upstreamAuthorization;
+        this.httpClient = upstream == null ? null : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    /**
+     * Record and replay switched off
+     */
+    public static RecordReplay live() {
+        return new RecordReplay(Mode.LIVE, List.of(), null, null, null, null);
+    }
+
+    /**
+     * @param mode live, record or replay, in any case
+     * @param file Recording to append to or replay from
+     * @param keyPaths Request paths whose values identify a request
+     * @param upstream Base URL to record from (e.g., "https://staging.example.com"), or blank to record the mock's own responses
+     * @param upstreamAuthorization Authorization header sent upstream, or blank for none
+     */
+    public static RecordReplay create(String mode, Path file, List<String> keyPaths, String upstream, String upstreamAuthorization) throws IOException {
+        Mode parsed;
+        try {
+            parsed = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("mock.mode must be live, record or replay: " + mode, e);
+        }
+
+        switch (parsed) {
+            case RECORD:
+                log.info("Recording responses to {}", file.toAbsolutePath());
+                return new RecordReplay(parsed, keyPaths, RecordingLog.open(file), null,
+                        upstream == null || upstream.isBlank() ? null : URI.create(upstream.replaceAll("/+$", "")),
+                        upstreamAuthorization == null || upstreamAuthorization.isBlank() ? null : upstreamAuthorization);
+            case REPLAY:
+                ReplayStore store = ReplayStore.open(file);
+                log.info("Replaying {} recorded responses from {}", store.size(), file.toAbsolutePath());
+                return new RecordReplay(parsed, keyPaths, null, store, null, null);
+            default:
+                return live();
+        }
+    }
+
+    public Mode getMode() { return mode; }
+
+    boolean isActive() {
+        return mode != Mode.LIVE;
+    }
+
+    /**
+     * Answers a request in record or replay mode. A body no key can be read from (malformed JSON, or a root
+     * that is not an object) is answered by the mock as in live mode, without being recorded or replayed.
+     * @param path Request path, part of the key and appended to the upstream URL
+     * @param body Raw request body
+     * @param mock Produces the mock's own response for the body
+     */
+    ResponseEntity<?> handle(String path, byte[] body, Function<byte[], ResponseEntity<?>> mock) throws IOException {
+        byte[] key;
+        try {
+            key = key(path, body);
+        } catch (IOException e) {
+            return mock.apply(body);
+        }
+
+        if (mode == Mode.REPLAY) {
+            ReplayStore.Recorded recorded = replayStore.lookup(key);
+            if (recorded == null) {
+                ResponseEntity<?> response = mock.apply(body);
+                return ResponseEntity.status(response.getStatusCode()).header(REPLAY_HEADER, "miss").body(response.getBody());
+            }
+            return ResponseEntity.status(recorded.status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(REPLAY_HEADER, "hit")
+                    .body(recorded.body);
+        }
+
+        int status;
+        byte[] responseBody;
+        if (upstream != null) {
+            HttpResponse<byte[]> response = forward(path, body);
+            status = response.statusCode();
+            responseBody = response.body();
+        } else {
+            ResponseEntity<?> response = mock.apply(body);
+            status = response.getStatusCode().value();
+            responseBody = objectMapper.writeValueAsBytes(response.getBody());
+        }
+        recordingLog.append(key, status, responseBody);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(responseBody);
+    }
+
+    /**
+     * Builds the normalised key of a request
+     */
+    byte[] key(String path, byte[] body) throws IOException {
+        String[] values = keyFields.extract(new ByteArrayInputStream(body));
+        StringBuilder key = new StringBuilder(path);
+        for (String value : values) {
+            key.append(SEPARATOR);
+            if (value != null) {
+                key.append(value.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return key.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private HttpResponse<byte[]> forward(String path, byte[] body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(upstream.resolve(upstream.getPath() + path))
+                .timeout(Duration.ofSeconds(60))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (upstreamAuthorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, upstreamAuthorization);
+        }
+
+        try {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while recording from " + upstream, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (recordingLog != null) {
+            recordingLog.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.fico.mock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only log of recorded responses. After an 8 byte magic header, each record is:
+ *
+ * <pre>
+ * int  length      bytes that follow in this record
+ * long keyHash     {@link #hash(byte[])} of the key
+ * int  status      HTTP status of the response
+ * int  keyLength   followed by the normalised request key
+ * int  bodyLength  followed by the response body
+ * </pre>
+ *
+ * A record cut short by a crash is ignored when the log is read by {@link ReplayStore}, and cut off
+ * when the log is next opened for appending.
+ */
+final class RecordingLog implements Closeable {
+
+    static final byte[] MAGIC = "MOCKREC1".getBytes(StandardCharsets.US_ASCII);
+    static final int RECORD_OVERHEAD = 8 + 4 + 4 + 4;
+
+    private final Path file;
+    private final FileChannel channel;
+
+    private RecordingLog(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a log for appending, creating it with a header if it does not exist yet
+     */
+    static RecordingLog open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        try {
+            if (channel.size() == 0) {
+                writeFully(channel, ByteBuffer.wrap(MAGIC), 0);
+            } else {
+                Scan scan = scan(channel, file);
+                if (scan.end < channel.size()) {
+                    channel.truncate(scan.end);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new RecordingLog(file, channel);
+    }
+
+    /**
+     * Walks the record lengths of a log without reading keys or bodies
+     */
+    static Scan scan(FileChannel channel, Path file) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+        if (!readFully(channel, header, 0) || !ByteBuffer.wrap(MAGIC).equals(header.flip())) {
+            throw new RuntimeException("Not a mock recording: " + file);
+        }
+
+        ByteBuffer length = ByteBuffer.allocate(4);
+        long position = MAGIC.length;
+        long records = 0;
+        int maxRecordLength = 0;
+        while (position + 4 <= size) {
+            length.clear();
+            if (!readFully(channel, length, position)) {
+                break;
+            }
+            int recordLength = length.getInt(0);
+            if (recordLength < RECORD_OVERHEAD || position + 4 + recordLength > size) {
+                break;
+            }
+            position += 4 + recordLength;
+            records++;
+            maxRecordLength = Math.max(maxRecordLength, 4 + recordLength);
+        }
+        return new Scan(position, records, maxRecordLength);
+    }
+
+    /**
+     * Appends one record; safe to call from several threads
+     */
+    synchronized void append(byte[] key, int status, byte[] body) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(4 + RECORD_OVERHEAD + key.length + body.length);
+        record.putInt(RECORD_OVERHEAD + key.length + body.length)
+                .putLong(hash(key))
+                .putInt(status)
+                .putInt(key.length).put(key)
+                .putInt(body.length).put(body)
+                .flip();
+        writeFully(channel, record, channel.size());
+    }
+
+    Path getFile() { return file; }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    /**
+     * 64-bit FNV-1a with a final avalanche, so the low bits used for table slots are well mixed
+     */
+    static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    static final class Scan {
+        /** Offset just past the last complete record */
+        final long end;
+        final long records;
+        /** Largest record including its length prefix */
+        final int maxRecordLength;
+
+        Scan(long end, long records, int maxRecordLength) {
+            this.end = end;
+            this.records = records;
+            this.maxRecordLength = maxRecordLength;
+        }
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.fico.mock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a {@link RecordingLog} for replay. The log is memory-mapped and indexed by an
+ * open-addressing hash table held in a direct buffer, so neither the recorded bodies nor the index
+ * live on the Java heap, and a lookup touches only the pages of the record it returns. When a key
+ * was recorded more than once, the latest record wins.
+ */
+final class ReplayStore {
+
+    /** Logs are mapped in chunks of this size, each extended so that no record straddles two mappings */
+    static final long CHUNK_SIZE = 1L << 30;
+
+    private static final int SLOT_SIZE = 16;
+
+    private final Path file;
+    private final long chunkSize;
+    private final MappedByteBuffer[] chunks;
+    private final ByteBuffer index;
+    private final int mask;
+    private final long records;
+
+    private ReplayStore(Path file, long chunkSize, MappedByteBuffer[] chunks, long records) {
+        this.file = file;
+        this.chunkSize = chunkSize;
+        this.chunks = chunks;
+        this.records = records;
+
+        long capacity = Long.highestOneBit(Math.max(16, records * 2 - 1)) << 1;
+        if (capacity * SLOT_SIZE > Integer.MAX_VALUE) {
+            throw new RuntimeException("Too many records to index: " + records + " in " + file);
+        }
+        this.index = ByteBuffer.allocateDirect((int) capacity * SLOT_SIZE);
+        this.mask = (int) capacity - 1;
+    }
+
+    /**
+     * Maps a recording and builds its index
+     */
+    static ReplayStore open(Path file) throws IOException {
+        return open(file, CHUNK_SIZE);
+    }
+
+    /**
+     * Maps a recording in chunks of the given size; small chunks let tests cross chunk boundaries
+     */
+    static ReplayStore open(Path file, long chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordingLog.Scan scan = RecordingLog.scan(channel, file);
+            if ((long) scan.maxRecordLength + chunkSize > Integer.MAX_VALUE) {
+                throw new RuntimeException("Record too large to map: " + scan.maxRecordLength + " bytes in " + file);
+            }
+
+            int chunkCount = (int) ((scan.end + chunkSize - 1) / chunkSize);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long start = i * chunkSize;
+                long length = Math.min(scan.end - start, chunkSize + scan.maxRecordLength);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+
+            ReplayStore store = new ReplayStore(file, chunkSize, chunks, scan.records);
+            long position = RecordingLog.MAGIC.length;
+            while (position < scan.end) {
+                store.insert(position);
+                position += 4 + store.chunk(position).getInt(store.local(position));
+            }
+            return store;
+        }
+    }
+
+    Path getFile() { return file; }
+    long size() { return records; }
+
+    /**
+     * @param key Normalised request key
+     * @return The latest response recorded for the key, or null if there is none
+     */
+    Recorded lookup(byte[] key) {
+        long record = find(RecordingLog.hash(key), key);
+        if (record < 0) {
+            return null;
+        }
+
+        ByteBuffer chunk = chunk(record);
+        int offset = local(record);
+        int status = chunk.getInt(offset + 12);
+        int keyLength = chunk.getInt(offset + 16);
+        int bodyOffset = offset + 20 + keyLength;
+        byte[] body = new byte[chunk.getInt(bodyOffset)];
+        chunk.get(bodyOffset + 4, body);
+        return new Recorded(status, body);
+    }
+
+    private void insert(long record) {
+        ByteBuffer chunk = chunk(record);
+        int offset = local(record);
+        long hash = chunk.getLong(offset + 4);
+        int keyLength = chunk.getInt(offset + 16);
+        byte[] key = new byte[keyLength];
+        chunk.get(offset + 20, key);
+
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            int base = slot * SLOT_SIZE;
+            long stored = index.getLong(base + 8);
+            if (stored == 0 || index.getLong(base) == hash && keyEquals(stored - 1, key)) {
+                index.putLong(base, hash);
+                index.putLong(base + 8, record + 1);
+                return;
+            }
+        }
+    }
+
+    private long find(long hash, byte[] key) {
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            int base = slot * SLOT_SIZE;
+            long stored = index.getLong(base + 8);
+            if (stored == 0) {
+                return -1;
+            }
+            if (index.getLong(base) == hash && keyEquals(stored - 1, key)) {
+                return stored - 1;
+            }
+        }
+    }
+
+    private boolean keyEquals(long record, byte[] key) {
+        ByteBuffer chunk = chunk(record);
+        int offset = local(record);
+        if (chunk.getInt(offset + 16) != key.length) {
+            return false;
+        }
+        int keyOffset = offset + 20;
+        for (int i = 0; i < key.length; i++) {
+            if (chunk.get(keyOffset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer chunk(long position) {
+        return chunks[(int) (position / chunkSize)];
+    }
+
+    private int local(long position) {
+        return (int) (position % chunkSize);
+    }
+
+    /**
+     * A recorded response: its status and body bytes
+     */
+    static class Recorded {
+        final int status;
+        final byte[] body;
+
+        Recorded(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
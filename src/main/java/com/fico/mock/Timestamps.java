@@ -0,0 +1,35 @@
+package com.fico.mock;
+
+import java.util.Date;
+
+/**
+ * Response timestamps in the mock's {@link Date#toString()} format. The text only changes once a
+ * second, so it is formatted once per second and shared by every request in between.
+ */
+final class Timestamps {
+
+    private static volatile Cached cached = new Cached(-1, "");
+
+    private Timestamps() {
+    }
+
+    static String now() {
+        long second = System.currentTimeMillis() / 1000;
+        Cached current = cached;
+        if (current.second != second) {
+            current = new Cached(second, new Date(second * 1000).toString());
+            cached = current;
+        }
+        return current.text;
+    }
+
+    private static final class Cached {
+        final long second;
+        final String text;
+
+        Cached(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
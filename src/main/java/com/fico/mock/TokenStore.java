@@ -0,0 +1,117 @@
+package com.fico.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fico.mock.model.ErrorResponse;
+import com.fico.mock.model.TokenResponse;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues the mock's access tokens and remembers them until they expire. Tokens are random, so
+ * concurrent clients never receive the same one. All tokens share one lifetime, so issue order is
+ * expiry order: expired tokens are dropped from the head of the issue queue, and the oldest live
+ * tokens are evicted once more than the configured maximum are held.
+ */
+public class TokenStore {
+
+    static final String TOKEN_PREFIX = "mock_access_token_";
+
+    private static final String BEARER = "Bearer ";
+
+    private final long expiresInSeconds;
+    private final int maxTokens;
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+    private final Queue<String> issueOrder = new ConcurrentLinkedQueue<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param expiresInSeconds Lifetime of issued tokens
+     * @param maxTokens Number of live tokens kept before the oldest are evicted
+     */
+    public TokenStore(long expiresInSeconds, int maxTokens) {
+        this.expiresInSeconds = expiresInSeconds;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * Issues a new token valid for the configured lifetime
+     */
+    TokenResponse issue(String scope) {
+        long now = System.currentTimeMillis();
+        evict(now);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String token = TOKEN_PREFIX + new UUID(random.nextLong(), random.nextLong());
+        expiries.put(token, now + TimeUnit.SECONDS.toMillis(expiresInSeconds));
+        issueOrder.offer(token);
+        return new TokenResponse(token, "Bearer", expiresInSeconds, scope);
+    }
+
+    /**
+     * @return True if the token was issued by this store and has not expired
+     */
+    boolean isValid(String token) {
+        Long expiresAt = expiries.get(token);
+        if (expiresAt == null) {
+            return false;
+        }
+        return expiresAt > System.currentTimeMillis();
+    }
+
+    private void evict(long now) {
+        String oldest;
+        while ((oldest = issueOrder.peek()) != null) {
+            Long expiresAt = expiries.get(oldest);
+            if (expiresAt != null && expiresAt > now && expiries.size() < maxTokens) {
+                return;
+            }
+            if (issueOrder.remove(oldest)) {
+                expiries.remove(oldest);
+            }
+        }
+    }
+
+    /**
+     * Returns a servlet filter that rejects requests carrying an Authorization header that is not a
+     * valid Bearer token from this store
+     * @param requireToken Also reject requests without an Authorization header
+     */
+    Filter filter(boolean requireToken) {
+        return (request, response, chain) -> authorize(request, response, chain, requireToken);
+    }
+
+    private void authorize(ServletRequest request, ServletResponse response, FilterChain chain, boolean requireToken) throws IOException, ServletException {
+        String authorization = ((HttpServletRequest) request).getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null && !requireToken) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())
+                && isValid(authorization.substring(BEARER.length()).trim())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String error = authorization == null ? "Missing bearer token" : "Invalid or expired bearer token";
+        httpResponse.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        httpResponse.setHeader(HttpHeaders.WWW_AUTHENTICATE, authorization == null ? "Bearer" : "Bearer error=\"invalid_token\"");
+        httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(httpResponse.getOutputStream(), new ErrorResponse("ERROR", error, Timestamps.now()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.fico.mock.model;
+
+/**
+ * One line of a batch response: the position of the item in the request, and its status and body
+ */
+public record BatchResult(
+        int index,
+        int status,
+        Object response) {
+}
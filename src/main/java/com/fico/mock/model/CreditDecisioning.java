@@ -0,0 +1,10 @@
+package com.fico.mock.model;
+
+/**
+ * Credit decisioning block of a transaction response; only the application id and timestamp vary per request
+ */
+public record CreditDecisioning(
+        Decisioning decisioning,
+        String applicationId,
+        String processedTimestamp) {
+}
@@ -0,0 +1,6 @@
+package com.fico.mock.model;
+
+public record CreditLineAssignment(
+        int creditLimitAmount,
+        double interestRate) {
+}
@@ -0,0 +1,46 @@
+package com.fico.mock.model;
+
+/**
+ * Decision codes returned by the mock, each with its reason, credit line and a pre-built,
+ * immutable decisioning block that is shared by every response with that outcome
+ */
+public enum DecisionOutcome {
+    APPROVED("A", "Approved - Good credit profile", 15000, 12.99),
+    DECLINED("D", "Declined - High risk profile", 0, 0.0),
+    PENDING("P", "Pending - Manual review required", 5000, 0.0);
+
+    public static final String PRODUCT_CODE = "CC001";
+
+    private final String code;
+    private final String reason;
+    private final int creditLimit;
+    private final double interestRate;
+    private final Decisioning decisioning;
+
+    DecisionOutcome(String code, String reason, int creditLimit, double interestRate) {
+        this.code = code;
+        this.reason = reason;
+        this.creditLimit = creditLimit;
+        this.interestRate = interestRate;
+        this.decisioning = Decisioning.of(code, reason, creditLimit, interestRate);
+    }
+
+    public String getCode() { return code; }
+    public String getReason() { return reason; }
+    public int getCreditLimit() { return creditLimit; }
+    public double getInterestRate() { return interestRate; }
+    public Decisioning getDecisioning() { return decisioning; }
+
+    /**
+     * @param code Decision code "A", "D" or "P" in any case
+     * @return The matching outcome, or null for an unknown code
+     */
+    public static DecisionOutcome fromCode(String code) {
+        for (DecisionOutcome outcome : values()) {
+            if (outcome.code.equalsIgnoreCase(code)) {
+                return outcome;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fico.mock.model;
+
+public record DecisionSummary(
+        String automatedDecisionCode,
+        String decisionCode,
+        String decisionReason) {
+}
@@ -0,0 +1,16 @@
+package com.fico.mock.model;
+
+import java.util.List;
+
+public record Decisioning(List<SubProductDecision> subProductDecisions) {
+
+    /**
+     * Builds the decisioning block for a single credit card sub-product
+     */
+    public static Decisioning of(String decisionCode, String decisionReason, int creditLimitAmount, double interestRate) {
+        return new Decisioning(List.of(new SubProductDecision(
+                new DecisionSummary(decisionCode, decisionCode, decisionReason),
+                new CreditLineAssignment(creditLimitAmount, interestRate),
+                DecisionOutcome.PRODUCT_CODE)));
+    }
+}
@@ -0,0 +1,7 @@
+package com.fico.mock.model;
+
+public record ErrorResponse(
+        String status,
+        String message,
+        String timestamp) {
+}
@@ -0,0 +1,7 @@
+package com.fico.mock.model;
+
+public record SubProductDecision(
+        DecisionSummary decisionSummary,
+        CreditLineAssignment creditLineAssignment,
+        String productCode) {
+}
@@ -0,0 +1,13 @@
+package com.fico.mock.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * OAuth2 client credentials token response
+ */
+public record TokenResponse(
+        @JsonProperty("access_token") String accessToken,
+        @JsonProperty("token_type") String tokenType,
+        @JsonProperty("expires_in") long expiresIn,
+        String scope) {
+}
@@ -0,0 +1,11 @@
+package com.fico.mock.model;
+
+/**
+ * Response body of the PLOR transaction endpoint
+ */
+public record TransactionResponse(
+        String transactionId,
+        String status,
+        String timestamp,
+        CreditDecisioning creditDecisioning) {
+}
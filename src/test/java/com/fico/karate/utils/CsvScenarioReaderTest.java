@@ -0,0 +1,94 @@
+package com.fico.karate.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvScenarioReaderTest {
+
+    private static final JsonTemplate EMPTY = JsonTemplate.of(new LinkedHashMap<>());
+
+    @Test
+    void readsQuotedCommasQuotesAndLineBreaks() {
+        List<String[]> rows = rows("id,note,city\n"
+                + "1,\"Smith, John\",Austin\n"
+                + "2,\"He said \"\"hi\"\"\",\"\"\n"
+                + "3,\"line one\nline two\",\"a\r\nb\"\n");
+
+        assertArrayEquals(new String[] {"1", "Smith, John", "Austin"}, rows.get(0));
+        assertArrayEquals(new String[] {"2", "He said \"hi\"", ""}, rows.get(1));
+        assertArrayEquals(new String[] {"3", "line one\nline two", "a\r\nb"}, rows.get(2));
+        assertEquals(3, rows.size());
+    }
+
+    @Test
+    void readsCrlfLineEndingsAndALastLineWithoutOne() {
+        List<String[]> rows = rows("id,name\r\n1,Ann\r\n2,Bob");
+        assertArrayEquals(new String[] {"1", "Ann"}, rows.get(0));
+        assertArrayEquals(new String[] {"2", "Bob"}, rows.get(1));
+        assertEquals(2, rows.size());
+    }
+
+    @Test
+    void skipsBlankLines() {
+        List<String[]> rows = rows("id,name\n\n1,Ann\r\n\r\n\n2,Bob\n\n");
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[] {"2", "Bob"}, rows.get(1));
+    }
+
+    @Test
+    void padsShortRowsAndDropsExtraCells() {
+        List<String[]> rows = rows("id,name,city\n1\n2,Bob,Austin,extra\n");
+        assertArrayEquals(new String[] {"1", null, null}, rows.get(0));
+        assertArrayEquals(new String[] {"2", "Bob", "Austin"}, rows.get(1));
+    }
+
+    @Test
+    void stripsALeadingByteOrderMark() {
+        try (CsvScenarioReader reader = reader("\uFEFFapplication.applicationId,\"channel\"\nAPP-1,ONLINE\n")) {
+            assertArrayEquals(new String[] {"application.applicationId", "channel"}, reader.getHeaders());
+            assertEquals(Map.of("application", Map.of("applicationId", "APP-1"), "channel", "ONLINE"), reader.next());
+        }
+        try (CsvScenarioReader reader = reader("\uFEFF\"id\"\n1\n")) {
+            assertArrayEquals(new String[] {"id"}, reader.getHeaders());
+        }
+    }
+
+    @Test
+    void populatesPayloadsAndSkipsResponseAndBlankColumns() {
+        try (CsvScenarioReader reader = reader("applicants[0].firstName,applicants[0].creditProfile.creditScore,response.status,note\n"
+                + "Ann,720,SUCCESS,\n")) {
+            assertTrue(reader.hasNext());
+            Map<String, Object> payload = reader.next();
+            assertEquals(Map.of("applicants", List.of(Map.of("firstName", "Ann", "creditProfile", Map.of("creditScore", 720)))), payload);
+            assertArrayEquals(new String[] {"Ann", "720", "SUCCESS", ""}, reader.getCurrentValues());
+            assertEquals(1, reader.getRowNumber());
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    @Test
+    void rejectsInputWithoutAHeader() {
+        assertThrows(RuntimeException.class, () -> reader(""));
+        assertThrows(RuntimeException.class, () -> reader("\uFEFF"));
+    }
+
+    private static List<String[]> rows(String csv) {
+        List<String[]> rows = new ArrayList<>();
+        try (CsvScenarioReader reader = reader(csv)) {
+            while (reader.hasNext()) {
+                reader.next();
+                rows.add(reader.getCurrentValues());
+            }
+        }
+        return rows;
+    }
+
+    private static CsvScenarioReader reader(String csv) {
+        return new CsvScenarioReader(new StringReader(csv), EMPTY);
+    }
+}
@@ -0,0 +1,97 @@
+package com.fico.karate.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTemplateTest {
+
+    private final Map<String, Object> json = Map.of(
+            "application", Map.of("applicationId", "TEMPLATE", "channel", "ONLINE"),
+            "applicants", List.of(
+                    Map.of("firstName", "Template", "address", Map.of("city", "Austin")),
+                    Map.of("firstName", "Second")),
+            "meta", Map.of("version", 1));
+
+    private final JsonTemplate template = JsonTemplate.of(json);
+
+    @Test
+    void leavesTheTemplateUnchanged() {
+        template.populate(Map.of("applicants[0].firstName", "Ann", "application.applicationId", "APP-1",
+                "applicants[0].address.city", "Boston", "applicants[3].firstName", "Dan", "meta.version", "2"));
+        template.populate(Map.of("application.channel", "BRANCH"));
+
+        assertEquals(json, template.getJson());
+    }
+
+    @Test
+    void sharesUntouchedBranchesBetweenRows() {
+        Map<String, Object> first = template.populate(Map.of("applicants[0].firstName", "Ann"));
+        Map<String, Object> second = template.populate(Map.of("application.applicationId", "APP-2"));
+
+        assertSame(template.getJson().get("meta"), first.get("meta"));
+        assertSame(first.get("meta"), second.get("meta"));
+        assertSame(template.getJson().get("application"), first.get("application"));
+        assertSame(template.getJson().get("applicants"), second.get("applicants"));
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void copiesTouchedBranchesIncludingArrayElements() {
+        Map<String, Object> row = template.populate(Map.of("applicants[0].firstName", "Ann"));
+
+        List<?> templateApplicants = (List<?>) template.getJson().get("applicants");
+        List<?> applicants = (List<?>) row.get("applicants");
+        assertNotSame(templateApplicants, applicants);
+        assertNotSame(templateApplicants.get(0), applicants.get(0));
+        assertSame(templateApplicants.get(1), applicants.get(1));
+        assertSame(((Map<?, ?>) templateApplicants.get(0)).get("address"), ((Map<?, ?>) applicants.get(0)).get("address"));
+
+        assertEquals("Ann", ((Map<?, ?>) applicants.get(0)).get("firstName"));
+        assertEquals("Template", ((Map<?, ?>) templateApplicants.get(0)).get("firstName"));
+    }
+
+    @Test
+    void createsMissingContainersAndPadsArrays() {
+        Map<String, Object> row = template.populate(Map.of("applicants[2].creditProfile.creditScore", "720", "extra.flag", "true"));
+
+        List<?> applicants = (List<?>) row.get("applicants");
+        assertEquals(3, applicants.size());
+        assertEquals(Map.of("creditProfile", Map.of("creditScore", 720)), applicants.get(2));
+        assertEquals(Map.of("flag", true), row.get("extra"));
+        assertEquals(3, template.getJson().size());
+    }
+
+    @Test
+    void rejectsWritesToSharedBranches() {
+        Map<String, Object> row = template.populate(Map.of("applicants[0].firstName", "Ann"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> meta = (Map<String, Object>) row.get("meta");
+        assertThrows(UnsupportedOperationException.class, () -> meta.put("version", 2));
+        @SuppressWarnings("unchecked")
+        List<Object> untouched = (List<Object>) template.populate(Map.of()).get("applicants");
+        assertThrows(UnsupportedOperationException.class, () -> untouched.add(Map.of()));
+        assertThrows(UnsupportedOperationException.class, () -> template.getJson().put("meta", Map.of()));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> copied = (Map<String, Object>) ((List<?>) row.get("applicants")).get(0);
+        copied.put("lastName", "Lee");
+        row.put("meta", Map.of("version", 3));
+        assertEquals(json, template.getJson());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void copiesTheSourceStructure() {
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("application", new LinkedHashMap<>(Map.of("applicationId", "A")));
+        JsonTemplate copy = JsonTemplate.of(source);
+        source.put("late", true);
+        ((Map<String, Object>) source.get("application")).put("applicationId", "B");
+
+        assertEquals(Map.of("application", Map.of("applicationId", "A")), copy.getJson());
+    }
+}
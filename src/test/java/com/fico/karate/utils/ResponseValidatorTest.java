@@ -0,0 +1,163 @@
+package com.fico.karate.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseValidatorTest {
+
+    private static final String DECISION = "response.creditDecisioning.decisioning.subProductDecisions[0]";
+
+    private final Map<String, Object> response = Map.of(
+            "status", "SUCCESS",
+            "approved", true,
+            "creditDecisioning", Map.of("decisioning", Map.of("subProductDecisions", List.of(Map.of(
+                    "decisionSummary", Map.of("decisionCode", "A"),
+                    "creditLineAssignment", Map.of("creditLimitAmount", 15000, "interestRate", 12.99))))));
+
+    @BeforeEach
+    @AfterEach
+    void resetSummary() {
+        ValidationSummary.reset();
+    }
+
+    @Test
+    void checksEveryExpectedPathAlongSharedPrefixes() {
+        ResponseValidator.Result result = ResponseValidator.validate(response, row(
+                "response.status", "SUCCESS",
+                "response.approved", "TRUE",
+                DECISION + ".decisionSummary.decisionCode", "A",
+                DECISION + ".creditLineAssignment.creditLimitAmount", "15000.00",
+                DECISION + ".creditLineAssignment.interestRate", "12.99",
+                "application.applicationId", "APP-1"), ResponseValidator.Mode.COLLECT_ALL);
+
+        assertTrue(result.isPassed(), result.toString());
+        assertEquals(5, result.getChecked());
+    }
+
+    @Test
+    void collectsEveryMismatchIncludingMissingPaths() {
+        ResponseValidator.Result result = ResponseValidator.validate(response, row(
+                "response.status", "ERROR",
+                DECISION + ".decisionSummary.decisionCode", "D",
+                "response.creditDecisioning.decisioning.subProductDecisions[1].decisionSummary.decisionCode", "A",
+                "response.missing", "x"), ResponseValidator.Mode.COLLECT_ALL);
+
+        assertEquals(4, result.getChecked());
+        assertEquals(List.of(
+                "status: Value mismatch (expected ERROR, actual SUCCESS)",
+                "creditDecisioning.decisioning.subProductDecisions[0].decisionSummary.decisionCode: Value mismatch (expected D, actual A)",
+                "creditDecisioning.decisioning.subProductDecisions[1].decisionSummary.decisionCode: Missing (expected A, actual null)",
+                "missing: Missing (expected x, actual null)"), result.getMessages());
+    }
+
+    @Test
+    void stopsAtTheFirstMismatchInFailFastMode() {
+        ResponseValidator.Result result = ResponseValidator.validate(response, row(
+                "response.status", "SUCCESS",
+                "response.approved", "false",
+                DECISION + ".decisionSummary.decisionCode", "D"), ResponseValidator.Mode.FAIL_FAST);
+
+        assertEquals(2, result.getChecked());
+        assertEquals(List.of("approved: Value mismatch (expected false, actual true)"), result.getMessages());
+    }
+
+    @Test
+    void skipsBlankExpectations() {
+        ResponseValidator.Result result = ResponseValidator.validate(response, row(
+                "response.status", "", "response.missing", "  "), ResponseValidator.Mode.COLLECT_ALL);
+        assertTrue(result.isPassed());
+        assertEquals(0, result.getChecked());
+    }
+
+    @Test
+    void reusesOneValidatorPerResponseColumnSet() {
+        ResponseValidator validator = ResponseValidator.forColumns(List.of("id", "response.status", "response.approved"));
+        assertSame(validator, ResponseValidator.forColumns(new LinkedHashSet<>(List.of("response.status", "name", "response.approved"))));
+        assertNotSame(validator, ResponseValidator.forColumns(List.of("response.approved", "response.status")));
+        assertNotSame(validator, ResponseValidator.forColumns(List.of("response.status")));
+        assertNotSame(validator, ResponseValidator.forColumns(List.of("response.status", "response.approved", "response.extra")));
+    }
+
+    @Test
+    void validatesRowsByPosition() {
+        List<Map<String, Object>> responses = List.of(response, response, response);
+        List<Map<String, String>> rows = List.of(
+                row("response.status", "SUCCESS"), row("response.status", "ERROR"), row("response.approved", "false"));
+
+        assertEquals(List.of("row 1: status: Value mismatch (expected ERROR, actual SUCCESS)",
+                        "row 2: approved: Value mismatch (expected false, actual true)"),
+                ResponseValidator.validateAll(responses, rows, ResponseValidator.Mode.COLLECT_ALL));
+        assertEquals(List.of("row 1: status: Value mismatch (expected ERROR, actual SUCCESS)"),
+                ResponseValidator.validateAll(responses, rows, ResponseValidator.Mode.FAIL_FAST));
+        assertThrows(RuntimeException.class, () -> ResponseValidator.validateAll(List.of(response), rows, ResponseValidator.Mode.COLLECT_ALL));
+    }
+
+    @Test
+    void addsEveryRowToTheSummary() {
+        ResponseValidator.validate(response, row("response.status", "SUCCESS", "response.approved", "true"), ResponseValidator.Mode.COLLECT_ALL);
+        ResponseValidator.validate(response, row("response.status", "ERROR", "response.approved", "true"), ResponseValidator.Mode.COLLECT_ALL);
+        ResponseValidator.validate(response, row("response.status", "PENDING", "response.approved", "no"), ResponseValidator.Mode.COLLECT_ALL);
+
+        assertEquals(3, ValidationSummary.getRows());
+        assertEquals(2, ValidationSummary.getFailedRows());
+        assertEquals(6, ValidationSummary.getChecks());
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> byPath = (Map<String, Map<String, Object>>) ValidationSummary.toMap().get("mismatchesByPath");
+        assertEquals(List.of("status", "approved"), new ArrayList<>(byPath.keySet()));
+        assertEquals(2L, byPath.get("status").get("mismatches"));
+        assertEquals("ERROR", byPath.get("status").get("expected"));
+        assertEquals(1L, byPath.get("approved").get("mismatches"));
+    }
+
+    @Test
+    void comparesNumbersByValue() {
+        assertTrue(ResponseValidator.matches(0.0, "0"));
+        assertTrue(ResponseValidator.matches(0, "0.0"));
+        assertTrue(ResponseValidator.matches(15000L, " 15000 "));
+        assertTrue(ResponseValidator.matches(1.5, "1.50"));
+        assertTrue(ResponseValidator.matches(1000.0, "1e3"));
+        assertTrue(ResponseValidator.matches(Long.MAX_VALUE, "9223372036854775807"));
+        assertFalse(ResponseValidator.matches(Long.MAX_VALUE, "9223372036854775806"));
+        assertFalse(ResponseValidator.matches(0, "zero"));
+        assertFalse(ResponseValidator.matches(0, ""));
+        assertFalse(ResponseValidator.matches(12.99, "12.9"));
+
+        assertTrue(ResponseValidator.matches("0", "0"));
+        assertFalse(ResponseValidator.matches("0.0", "0"));
+        assertFalse(ResponseValidator.matches(null, "0"));
+        assertTrue(ResponseValidator.matches(false, "FALSE"));
+    }
+
+    @Test
+    void validatesCsvRowsWithNumbersComparedByValue() {
+        Map<String, YamlSchemaUtils.ValidationResult> results = YamlSchemaUtils.validateResponseFromCsv(
+                Map.of("score", 0.0, "limit", 15000, "code", "A"),
+                row("response.score", "0", "response.limit", "15000.0", "response.code", "D"));
+
+        assertTrue(results.get("response.score").isValid());
+        assertTrue(results.get("response.limit").isValid());
+        assertFalse(results.get("response.code").isValid());
+    }
+
+    @Test
+    void parsesModes() {
+        assertEquals(ResponseValidator.Mode.COLLECT_ALL, ResponseValidator.Mode.of(null));
+        assertEquals(ResponseValidator.Mode.COLLECT_ALL, ResponseValidator.Mode.of(" "));
+        assertEquals(ResponseValidator.Mode.FAIL_FAST, ResponseValidator.Mode.of("FAIL_FAST"));
+        assertEquals(ResponseValidator.Mode.COLLECT_ALL, ResponseValidator.Mode.of(" collect-all "));
+        assertThrows(RuntimeException.class, () -> ResponseValidator.Mode.of("strict"));
+    }
+
+    private static Map<String, String> row(String... cells) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < cells.length; i += 2) {
+            row.put(cells[i], cells[i + 1]);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,103 @@
+package com.fico.karate.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioDataGeneratorTest {
+
+    private static final String SCHEMA = "classpath:com/fico/karate/utils/generator_schema.yaml";
+    private static final int ROWS = 500;
+
+    @Test
+    void keepsValuesInsideInclusiveAndExclusiveBounds() {
+        ScenarioDataGenerator generator = ScenarioDataGenerator.forRequestBody(SCHEMA, "/limits", "post", 7, 1);
+        List<String> headers = List.of(generator.getHeaders());
+        Set<String> exclusive = new HashSet<>();
+
+        for (long index = 0; index < ROWS; index++) {
+            String[] row = generator.row(index);
+            assertTrue(Long.parseLong(row[headers.indexOf("negativeOnly")]) <= -5);
+            exclusive.add(row[headers.indexOf("exclusive")]);
+            BigDecimal rate = new BigDecimal(row[headers.indexOf("rate")]);
+            assertTrue(rate.signum() > 0 && rate.compareTo(new BigDecimal("0.02")) <= 0, rate.toString());
+        }
+        assertEquals(Set.of("2"), exclusive);
+    }
+
+    @Test
+    void fitsFreeTextToLengthLimits() {
+        ScenarioDataGenerator generator = ScenarioDataGenerator.forRequestBody(SCHEMA, "/limits", "post", 7, 1);
+        List<String> headers = List.of(generator.getHeaders());
+
+        for (long index = 0; index < ROWS; index++) {
+            String[] row = generator.row(index);
+            assertEquals(12, row[headers.indexOf("code")].length());
+            assertTrue(row[headers.indexOf("shortName")].length() <= 3);
+        }
+    }
+
+    @Test
+    void generatesRowsThatPassTheRequestSchema() {
+        ScenarioDataGenerator generator = ScenarioDataGenerator.forRequestBody("classpath:api_schema.yaml", "/api/plor/v1/transaction", "post", 42, 2);
+        SchemaValidator validator = SchemaValidator.forRequestBody("classpath:api_schema.yaml", "/api/plor/v1/transaction", "post");
+        JsonTemplate template = JsonTemplate.of(new LinkedHashMap<>())
+                .withConversions(ValueConversionPlan.forRequestBody("classpath:api_schema.yaml", "/api/plor/v1/transaction", "post"));
+        String[] headers = generator.getHeaders();
+
+        for (long index = 0; index < 100; index++) {
+            String[] row = generator.row(index);
+            Map<String, String> cells = new LinkedHashMap<>();
+            for (int i = 1; i < headers.length; i++) {
+                cells.put(headers[i], row[i]);
+            }
+            assertEquals(List.of(), validator.validate(template.populate(cells)), String.join(",", row));
+        }
+    }
+
+    @Test
+    void repeatsRowsForTheSameSeedAndIndex() {
+        ScenarioDataGenerator first = ScenarioDataGenerator.forRequestBody(SCHEMA, "/limits", "post", 11, 1);
+        ScenarioDataGenerator second = ScenarioDataGenerator.forRequestBody(SCHEMA, "/limits", "post", 11, 1);
+        assertArrayEquals(first.row(3), second.row(3));
+    }
+
+    @Test
+    void failsFastOnLimitsItCannotHonour() {
+        RuntimeException empty = assertThrows(RuntimeException.class,
+                () -> ScenarioDataGenerator.forRequestBody(SCHEMA, "/impossible", "post", 1, 1));
+        assertTrue(empty.getMessage().contains("empty"), empty.getMessage());
+
+        RuntimeException date = assertThrows(RuntimeException.class,
+                () -> ScenarioDataGenerator.forRequestBody(SCHEMA, "/short-date", "post", 1, 1));
+        assertTrue(date.getMessage().contains("day"), date.getMessage());
+    }
+
+    @Test
+    void generatesValuesMatchingSimplePatterns() {
+        SplittableRandom random = new SplittableRandom(3);
+        ScenarioDataGenerator.Pattern pattern = ScenarioDataGenerator.Pattern.parse("^[A-Z]{2}-\\d{4,6}$");
+        assertEquals(7, pattern.minLength());
+        assertEquals(9, pattern.maxLength());
+        for (int i = 0; i < ROWS; i++) {
+            String value = pattern.generate(random);
+            assertTrue(value.matches("[A-Z]{2}-[0-9]{4,6}"), value);
+        }
+
+        ScenarioDataGenerator.Pattern top = ScenarioDataGenerator.Pattern.parse("[\uFFFE-\uFFFF]{3}");
+        for (int i = 0; i < ROWS; i++) {
+            assertTrue(top.generate(random).matches("[\uFFFE\uFFFF]{3}"));
+        }
+    }
+
+    @Test
+    void rejectsPatternsItCannotGenerate() {
+        for (String regex : List.of("^a{3,1}$", "[0-9]{-1}", "a{x}", "(ab)+", "[^0-9]", "[0-9")) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> ScenarioDataGenerator.Pattern.parse(regex), regex);
+            assertTrue(e.getMessage().startsWith("Cannot generate values for pattern"), e.getMessage());
+        }
+    }
+}
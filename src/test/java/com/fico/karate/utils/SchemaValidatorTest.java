@@ -0,0 +1,215 @@
+package com.fico.karate.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaValidatorTest {
+
+    private static final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+
+    private static final SchemaValidator APPLICATION = validator(String.join("\n",
+            "type: object",
+            "required: [applicationId, applicants]",
+            "properties:",
+            "  applicationId: {type: string, pattern: '^APP-[0-9]+$'}",
+            "  channel: {type: string, enum: [ONLINE, BRANCH]}",
+            "  term: {type: integer, enum: [12, 24]}",
+            "  approved: {type: boolean}",
+            "  note: {type: string, nullable: true, minLength: 2, maxLength: 4}",
+            "  applicants:",
+            "    type: array",
+            "    minItems: 1",
+            "    maxItems: 2",
+            "    items:",
+            "      type: object",
+            "      required: [firstName]",
+            "      properties:",
+            "        firstName: {type: string}",
+            "        scores: {type: array, items: {type: integer, minimum: 300, maximum: 850}}",
+            "        address:",
+            "          type: object",
+            "          properties:",
+            "            zipCode: {type: string, pattern: '^[0-9]{5}$'}"));
+
+    @Test
+    void acceptsAValidPayload() {
+        assertEquals(List.of(), messages(APPLICATION, json(
+                "{applicationId: APP-1, channel: ONLINE, term: 24.0, approved: true, note: null,"
+                        + " applicants: [{firstName: Ann, scores: [300, 850], address: {zipCode: '01234'}}]}")));
+    }
+
+    @Test
+    void reportsMissingRequiredProperties() {
+        assertEquals(List.of("applicationId: required property is missing", "applicants: required property is missing"),
+                messages(APPLICATION, json("{}")));
+        assertEquals(List.of("applicants[0].firstName: required property is missing"),
+                messages(APPLICATION, json("{applicationId: APP-1, applicants: [{}]}")));
+    }
+
+    @Test
+    void reportsWrongTypes() {
+        assertEquals(List.of(
+                        "applicationId: expected string but was Integer",
+                        "approved: expected boolean but was String",
+                        "applicants: expected array but was LinkedHashMap"),
+                messages(APPLICATION, json("{applicationId: 7, approved: 'true', applicants: {}}")));
+        assertEquals(List.of("$: expected object but was ArrayList"), messages(APPLICATION, new ArrayList<>()));
+
+        SchemaValidator integer = validator("type: integer");
+        assertTrue(integer.isValid(5L));
+        assertTrue(integer.isValid(5.0));
+        assertTrue(integer.isValid(new BigDecimal("5.00")));
+        assertEquals(List.of("$: expected integer but was Double"), messages(integer, 5.5));
+        assertEquals(List.of("$: expected integer but was null"), messages(integer, null));
+    }
+
+    @Test
+    void reportsEnumMisses() {
+        assertEquals(List.of("channel: value 'online' is not one of [ONLINE, BRANCH]", "term: value '36' is not one of [12, 24]"),
+                messages(APPLICATION, json("{applicationId: APP-1, channel: online, term: 36, applicants: [{firstName: A}]}")));
+    }
+
+    @Test
+    void checksInclusiveAndExclusiveBounds() {
+        SchemaValidator inclusive = validator("{type: number, minimum: 0, maximum: 1.5}");
+        assertTrue(inclusive.isValid(0));
+        assertTrue(inclusive.isValid(1.5));
+        assertEquals(List.of("$: value -0.01 is below minimum 0"), messages(inclusive, -0.01));
+        assertEquals(List.of("$: value 2 is above maximum 1.5"), messages(inclusive, 2));
+
+        SchemaValidator exclusive = validator("{type: number, minimum: 0, exclusiveMinimum: true, maximum: 10, exclusiveMaximum: true}");
+        assertTrue(exclusive.isValid(0.001));
+        assertTrue(exclusive.isValid(9.999));
+        assertEquals(List.of("$: value 0 is below exclusive minimum 0"), messages(exclusive, 0));
+        assertEquals(List.of("$: value 10 is above exclusive maximum 10"), messages(exclusive, 10));
+
+        assertEquals(List.of("applicants[0].scores[1]: value 299 is below minimum 300"),
+                messages(APPLICATION, json("{applicationId: APP-1, applicants: [{firstName: A, scores: [300, 299]}]}")));
+    }
+
+    @Test
+    void checksLengthsAndItemCounts() {
+        assertEquals(List.of("note: expected length >= 2 but was 1"),
+                messages(APPLICATION, json("{applicationId: APP-1, note: x, applicants: [{firstName: A}]}")));
+        assertEquals(List.of("note: expected length <= 4 but was 5"),
+                messages(APPLICATION, json("{applicationId: APP-1, note: xxxxx, applicants: [{firstName: A}]}")));
+        assertEquals(List.of("applicants: expected at least 1 items but had 0"),
+                messages(APPLICATION, json("{applicationId: APP-1, applicants: []}")));
+        assertEquals(List.of("applicants: expected at most 2 items but had 3"),
+                messages(APPLICATION, json("{applicationId: APP-1, applicants: [{firstName: A}, {firstName: B}, {firstName: C}]}")));
+    }
+
+    @Test
+    void reportsPatternMissesAtNestedArrayPaths() {
+        assertEquals(List.of(
+                        "applicationId: value 'APP-X' does not match pattern ^APP-[0-9]+$",
+                        "applicants[1].scores[0]: expected integer but was String",
+                        "applicants[1].address.zipCode: value '1234' does not match pattern ^[0-9]{5}$"),
+                messages(APPLICATION, json("{applicationId: APP-X, applicants: [{firstName: A},"
+                        + " {firstName: B, scores: ['700'], address: {zipCode: '1234'}}]}")));
+
+        SchemaValidator matrix = validator("{type: array, items: {type: array, items: {type: string, enum: [a]}}}");
+        assertEquals(List.of("[1][0]: value 'b' is not one of [a]"), messages(matrix, List.of(List.of("a"), List.of("b"))));
+    }
+
+    @Test
+    void appliesAllOf() {
+        SchemaValidator allOf = validator("{allOf: [{type: string, minLength: 2}, {type: string, pattern: '^[a-z]+$'}]}");
+        assertTrue(allOf.isValid("ab"));
+        assertEquals(List.of("$: expected length >= 2 but was 1", "$: value 'A' does not match pattern ^[a-z]+$"),
+                messages(allOf, "A"));
+    }
+
+    @Test
+    void appliesAnyOf() {
+        SchemaValidator anyOf = validator("{anyOf: [{type: integer}, {type: string, pattern: '^[0-9]+$'}]}");
+        assertTrue(anyOf.isValid(12));
+        assertTrue(anyOf.isValid("12"));
+        assertEquals(List.of("$: value does not match any of the anyOf schemas"), messages(anyOf, "twelve"));
+    }
+
+    @Test
+    void appliesOneOf() {
+        SchemaValidator oneOf = validator("{oneOf: [{type: number, maximum: 10}, {type: number, minimum: 5}]}");
+        assertTrue(oneOf.isValid(2));
+        assertTrue(oneOf.isValid(20));
+        assertEquals(List.of("$: value must match exactly one oneOf schema but matched 2"), messages(oneOf, 7));
+        assertEquals(List.of("$: value must match exactly one oneOf schema but matched 0"), messages(oneOf, "7"));
+    }
+
+    @Test
+    void checksCalendarDates() {
+        SchemaValidator date = validator("{type: string, format: date}");
+        for (String valid : List.of("2024-02-29", "2000-02-29", "2023-12-31", "0001-01-01")) {
+            assertTrue(date.isValid(valid), valid);
+        }
+        for (String invalid : List.of("2024-02-30", "2023-02-29", "1900-02-29", "2024-04-31", "2024-13-01", "2024-00-10",
+                "2024-01-00", "2024-1-01", "2024/01/01", "20240101", "2024-01-01T00:00:00Z", "", "abcd-ef-gh")) {
+            assertEquals(List.of("$: value '" + invalid + "' is not a valid date"), messages(date, invalid), invalid);
+        }
+    }
+
+    @Test
+    void checksDateTimesAndOffsets() {
+        SchemaValidator dateTime = validator("{type: string, format: date-time}");
+        for (String valid : List.of("2024-01-15T10:30:00Z", "2024-01-15t10:30:00z", "2024-01-15 10:30:00Z",
+                "2024-01-15T10:30:00.123456+05:30", "2024-01-15T23:59:60-00:00", "2024-01-15T00:00:00+23:59")) {
+            assertTrue(dateTime.isValid(valid), valid);
+        }
+        for (String invalid : List.of("2024-01-15T10:30:00", "2024-01-15T10:30:00+0530", "2024-01-15T10:30:00+24:00",
+                "2024-01-15T10:30:00+05:60", "2024-01-15T10:30:00+5:30", "2024-01-15T10:30:00.Z", "2024-01-15T24:00:00Z",
+                "2024-01-15T10:60:00Z", "2024-02-30T10:30:00Z", "2024-01-15X10:30:00Z", "2024-01-15T10:30Z", "2024-01-15")) {
+            assertFalse(dateTime.isValid(invalid), invalid);
+        }
+    }
+
+    @Test
+    void checksEmailAddresses() {
+        SchemaValidator email = validator("{type: string, format: email}");
+        assertTrue(email.isValid("ann.lee@example.co.uk"));
+        for (String invalid : List.of("ann", "@example.com", "ann@example", "ann@.com", "ann@example.", "a@b@example.com",
+                "ann lee@example.com")) {
+            assertFalse(email.isValid(invalid), invalid);
+        }
+        assertTrue(validator("{type: string, format: uuid}").isValid("not checked"));
+    }
+
+    @Test
+    void compilesTheRequestSchemaOncePerFile() {
+        SchemaValidator request = SchemaValidator.forRequestBody("classpath:api_schema.yaml", "/api/plor/v1/transaction", "post");
+        assertSame(request, SchemaValidator.forRequestBody("classpath:api_schema.yaml", "/api/plor/v1/transaction", "POST"));
+        assertEquals(List.of("application.channel: value 'KIOSK' is not one of [ONLINE, BRANCH, PHONE, MOBILE]",
+                        "applicants[0].dateOfBirth: value '1990-02-30' is not a valid date"),
+                request.violationMessages(json("{application: {applicationId: APP-1, bomVersionId: v1, productCode: CC,"
+                        + " channel: KIOSK}, applicants: [{firstName: A, lastName: B, dateOfBirth: '1990-02-30', ssn: '123456789'}]}")));
+        assertThrows(RuntimeException.class,
+                () -> SchemaValidator.forRequestBody("classpath:api_schema.yaml", "/missing", "post"));
+    }
+
+    private static List<String> messages(SchemaValidator validator, Object payload) {
+        return validator.violationMessages(payload);
+    }
+
+    private static SchemaValidator validator(String yaml) {
+        return SchemaValidator.compile(json(yaml));
+    }
+
+    /**
+     * Parses YAML flow syntax, which keeps payloads and schemas short; values parse as JSON types
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> json(String yaml) {
+        try {
+            return yamlMapper.readValue(yaml, LinkedHashMap.class);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.fico.karate.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenCacheTest {
+
+    /** Token responses by client id; a client not listed gets a 500 */
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private HttpServer server;
+    private String tokenUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        TokenCache.clear();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/oauth/token", exchange -> {
+            Map<?, ?> body = YamlSchemaUtils.jsonMapper.readValue(exchange.getRequestBody(), Map.class);
+            String clientId = (String) body.get("client_id");
+            int count = requests.computeIfAbsent(clientId, id -> new AtomicInteger()).incrementAndGet();
+            if (clientId.equals("slow")) {
+                try {
+                    releaseSlow.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            String response = responses.get(clientId);
+            byte[] bytes = (response == null ? "{}" : response.replace("#", String.valueOf(count))).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response == null ? 500 : 200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        });
+        server.start();
+        tokenUrl = "http://localhost:" + server.getAddress().getPort() + "/oauth/token";
+    }
+
+    @AfterEach
+    void stopServer() {
+        releaseSlow.countDown();
+        server.stop(0);
+        TokenCache.clear();
+    }
+
+    @Test
+    void reusesShortLivedTokens() {
+        responses.put("short", "{\"access_token\": \"short-#\", \"expires_in\": 10}");
+        assertEquals("short-1", TokenCache.getAccessToken(tokenUrl, "short", "secret"));
+        assertEquals("short-1", TokenCache.getAccessToken(tokenUrl, "short", "secret"));
+        assertEquals(1, requests.get("short").get());
+    }
+
+    @Test
+    void reusesTokensWithoutExpiresIn() {
+        responses.put("forever", "{\"access_token\": \"forever-#\"}");
+        assertEquals("forever-1", TokenCache.getAccessToken(tokenUrl, "forever", "secret"));
+        assertEquals("forever-1", TokenCache.getAccessToken(tokenUrl, "forever", "secret"));
+        assertEquals(1, requests.get("forever").get());
+    }
+
+    @Test
+    void refetchesTokensThatExpireImmediately() {
+        responses.put("expired", "{\"access_token\": \"expired-#\", \"expires_in\": 0}");
+        assertEquals("expired-1", TokenCache.getAccessToken(tokenUrl, "expired", "secret"));
+        assertEquals("expired-2", TokenCache.getAccessToken(tokenUrl, "expired", "secret"));
+    }
+
+    @Test
+    void retriesAfterAFailedRequest() {
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> TokenCache.getAccessToken(tokenUrl, "flaky", "secret"));
+        assertTrue(failure.getMessage().contains("status 500"), failure.getMessage());
+
+        responses.put("flaky", "{\"access_token\": \"flaky-#\", \"expires_in\": 3600}");
+        assertEquals("flaky-2", TokenCache.getAccessToken(tokenUrl, "flaky", "secret"));
+    }
+
+    @Test
+    void sharesOneFetchPerClientWithoutBlockingOthers() throws Exception {
+        responses.put("slow", "{\"access_token\": \"slow-#\", \"expires_in\": 3600}");
+        responses.put("fast", "{\"access_token\": \"fast-#\", \"expires_in\": 3600}");
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = threads.submit(() -> TokenCache.getAccessToken(tokenUrl, "slow", "secret"));
+            Future<String> second = threads.submit(() -> TokenCache.getAccessToken(tokenUrl, "slow", "secret"));
+
+            assertEquals("fast-1", threads.submit(() -> TokenCache.getAccessToken(tokenUrl, "fast", "secret")).get(5, TimeUnit.SECONDS));
+            assertFalse(first.isDone());
+
+            releaseSlow.countDown();
+            assertEquals("slow-1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("slow-1", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, requests.get("slow").get());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
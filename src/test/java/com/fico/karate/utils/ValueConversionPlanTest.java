@@ -0,0 +1,52 @@
+package com.fico.karate.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueConversionPlanTest {
+
+    private static final String SCHEMA = "classpath:api_schema.yaml";
+    private static final String API_PATH = "/api/plor/v1/transaction";
+
+    private final ValueConversionPlan plan = ValueConversionPlan.forRequestBody(SCHEMA, API_PATH, "POST");
+
+    @Test
+    void plansColumnsFromPropertyTypes() {
+        assertEquals(ValueConverter.INTEGER, converter("applicants[0].creditProfile.creditScore"));
+        assertEquals(ValueConverter.STRING, converter("applicants[1].address.zipCode"));
+        assertEquals(ValueConverter.NUMBER, converter("application.requestedAmount"));
+        assertEquals(ValueConverter.BOOLEAN, converter("applicants[0].creditProfile.bankruptcyHistory"));
+
+        assertEquals("01234", plan.convert(PathAccessor.forColumn("applicants[0].address.zipCode"), "01234"));
+        assertEquals(720, plan.convert(PathAccessor.forColumn("applicants[0].creditProfile.creditScore"), "720"));
+    }
+
+    @Test
+    void infersColumnsTheSchemaDoesNotDescribe() {
+        assertEquals(ValueConverter.INFERRED, converter("application.unknownField"));
+        assertEquals(ValueConverter.INFERRED, converter("applicants.firstName"));
+        assertEquals(ValueConverter.INFERRED, converter("application[0].applicationId"));
+        assertEquals(ValueConverter.INFERRED, converter("applicants[0].address"));
+        assertEquals(ValueConverter.INFERRED, ValueConversionPlan.INFERRED.converterFor(PathAccessor.forColumn("applicants[0].address.zipCode")));
+    }
+
+    @Test
+    void returnsBlankAndNullCellsUnchanged() {
+        PathAccessor creditScore = PathAccessor.forColumn("applicants[0].creditProfile.creditScore");
+        assertNull(plan.convert(creditScore, null));
+        assertEquals("", plan.convert(creditScore, ""));
+        assertEquals("  ", plan.convert(creditScore, "  "));
+        assertEquals("n/a", plan.convert(creditScore, "n/a"));
+    }
+
+    @Test
+    void sharesOnePlanPerOperation() {
+        assertSame(plan, ValueConversionPlan.forRequestBody(SCHEMA, API_PATH, "post"));
+        assertThrows(RuntimeException.class, () -> ValueConversionPlan.forRequestBody(SCHEMA, "/missing", "post"));
+    }
+
+    private ValueConverter converter(String column) {
+        return plan.converterFor(PathAccessor.forColumn(column));
+    }
+}
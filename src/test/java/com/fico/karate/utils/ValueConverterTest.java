@@ -0,0 +1,89 @@
+package com.fico.karate.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueConverterTest {
+
+    @Test
+    void keepsStringsAsTheyAre() {
+        assertEquals("01234", ValueConverter.STRING.convert("01234"));
+        assertEquals(" 12 ", ValueConverter.STRING.convert(" 12 "));
+        assertEquals("", ValueConverter.STRING.convert(""));
+    }
+
+    @Test
+    void convertsIntegersAndWidensToLong() {
+        assertEquals(42, ValueConverter.INTEGER.convert(" 42 "));
+        assertEquals(-7, ValueConverter.INTEGER.convert("-7"));
+        assertEquals(7, ValueConverter.INTEGER.convert("+7"));
+        assertEquals(Integer.MAX_VALUE, ValueConverter.INTEGER.convert("2147483647"));
+        assertEquals(2147483648L, ValueConverter.INTEGER.convert("2147483648"));
+        assertEquals(Integer.MIN_VALUE, ValueConverter.INTEGER.convert("-2147483648"));
+        assertEquals(-2147483649L, ValueConverter.INTEGER.convert("-2147483649"));
+        assertEquals(Long.MAX_VALUE, ValueConverter.INTEGER.convert("9223372036854775807"));
+        assertEquals(Long.MIN_VALUE, ValueConverter.INTEGER.convert("-9223372036854775808"));
+    }
+
+    @Test
+    void keepsTextThatIsNotAnIntegerAsAString() {
+        for (String value : new String[] {"9223372036854775808", "-9223372036854775809", "99999999999999999999",
+                "1.5", "1e3", "-", "+", "", " ", "12a", "0x10", "1 000"}) {
+            assertEquals(value, ValueConverter.INTEGER.convert(value), value);
+        }
+    }
+
+    @Test
+    void convertsNumbersToIntegralsOrDoubles() {
+        assertEquals(12, ValueConverter.NUMBER.convert("12"));
+        assertEquals(3000000000L, ValueConverter.NUMBER.convert("3000000000"));
+        assertEquals(12.5, ValueConverter.NUMBER.convert(" 12.5 "));
+        assertEquals(-0.5, ValueConverter.NUMBER.convert("-.5"));
+        assertEquals(5.0, ValueConverter.NUMBER.convert("5."));
+        assertEquals(1000.0, ValueConverter.NUMBER.convert("1e3"));
+        assertEquals(0.0125, ValueConverter.NUMBER.convert("1.25E-2"));
+        assertEquals(1.0E20, ValueConverter.NUMBER.convert("100000000000000000000"));
+
+        for (String value : new String[] {"1e", "1e+", ".", "-.", "e5", "1.2.3", "NaN", "Infinity", "1,5", "", "12 ab"}) {
+            assertEquals(value, ValueConverter.NUMBER.convert(value), value);
+        }
+    }
+
+    @Test
+    void convertsBooleansInAnyCase() {
+        assertEquals(Boolean.TRUE, ValueConverter.BOOLEAN.convert("TRUE"));
+        assertEquals(Boolean.FALSE, ValueConverter.BOOLEAN.convert(" false "));
+        assertEquals("yes", ValueConverter.BOOLEAN.convert("yes"));
+        assertEquals("1", ValueConverter.BOOLEAN.convert("1"));
+    }
+
+    @Test
+    void infersTypesFromTheText() {
+        assertEquals(12, ValueConverter.INFERRED.convert("12"));
+        assertEquals(-12, ValueConverter.INFERRED.convert("-12"));
+        assertEquals(1.5, ValueConverter.INFERRED.convert("1.5"));
+        assertEquals(1.5, ValueConverter.INFERRED.convert(" 1.5 "));
+        assertEquals(Boolean.TRUE, ValueConverter.INFERRED.convert("True"));
+        assertEquals(Boolean.FALSE, ValueConverter.INFERRED.convert("false"));
+
+        // Whole numbers beyond int range, exponents without a dot and padded integers stay strings
+        for (String value : new String[] {"2147483648", "-2147483649", "1e3", " 12", "007a", "1.2.3", "", " true"}) {
+            assertEquals(value, ValueConverter.INFERRED.convert(value), value);
+        }
+        assertEquals(7, ValueConverter.INFERRED.convert("007"));
+    }
+
+    @Test
+    void mapsSchemaTypes() {
+        assertEquals(ValueConverter.STRING, ValueConverter.forSchemaType("string"));
+        assertEquals(ValueConverter.INTEGER, ValueConverter.forSchemaType("integer"));
+        assertEquals(ValueConverter.NUMBER, ValueConverter.forSchemaType("number"));
+        assertEquals(ValueConverter.BOOLEAN, ValueConverter.forSchemaType("boolean"));
+        assertEquals(ValueConverter.INFERRED, ValueConverter.forSchemaType("object"));
+        assertEquals(ValueConverter.INFERRED, ValueConverter.forSchemaType(null));
+        assertEquals(ValueConverter.INFERRED, ValueConverter.forSchemaType(List.of("string", "null")));
+    }
+}
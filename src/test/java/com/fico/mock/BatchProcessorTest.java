@@ -0,0 +1,145 @@
+package com.fico.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchProcessorTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Echoes the item's "id", so results can be matched with their items */
+    private static final Function<byte[], ResponseEntity<?>> ECHO = body -> {
+        try {
+            return ResponseEntity.ok(Map.of("id", objectMapper.readTree(body).path("id").asInt()));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    };
+
+    private final BatchProcessor processor = new BatchProcessor(4, 3);
+
+    @AfterEach
+    void close() {
+        processor.close();
+    }
+
+    @Test
+    void answersEveryItemOfAnArrayOnceWithItsIndex() throws IOException {
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            batch.append(i > 0 ? "," : "").append("{\"id\": ").append(i).append('}');
+        }
+        List<JsonNode> lines = process(batch.append(']').toString(), slowFor(7, ECHO));
+
+        assertEquals(50, lines.size());
+        Set<Integer> indexes = new HashSet<>();
+        for (JsonNode line : lines) {
+            assertEquals(200, line.get("status").asInt());
+            assertEquals(line.get("index").asInt(), line.get("response").get("id").asInt());
+            assertTrue(indexes.add(line.get("index").asInt()));
+        }
+    }
+
+    @Test
+    void readsNdjson() throws IOException {
+        List<JsonNode> lines = process("{\"id\": 0}\n{\"id\": 1}\n\n{\"id\": 2}\n", ECHO);
+        assertEquals(Set.of(0, 1, 2), indexes(lines));
+    }
+
+    @Test
+    void endsWithA400LineAfterAMalformedItem() throws IOException {
+        List<JsonNode> lines = process("[{\"id\": 0}, {\"id\": 1}, {\"id\": ]", ECHO);
+
+        assertEquals(3, lines.size());
+        JsonNode last = lines.get(2);
+        assertEquals(2, last.get("index").asInt());
+        assertEquals(400, last.get("status").asInt());
+        assertTrue(last.get("response").get("message").asText().startsWith("Malformed batch item"));
+        assertEquals(Set.of(0, 1), indexes(lines.subList(0, 2)));
+    }
+
+    @Test
+    void answersEmptyBatchesWithNoLines() throws IOException {
+        assertEquals(List.of(), process("[]", ECHO));
+        assertEquals(List.of(), process("", ECHO));
+    }
+
+    @Test
+    void turnsWorkerFailuresIntoA500LineWithoutHanging() {
+        Function<byte[], ResponseEntity<?>> failing = body -> {
+            int id = ECHO.apply(body).getBody() instanceof Map<?, ?> map ? (Integer) map.get("id") : -1;
+            if (id == 1) {
+                throw new AssertionError("worker broke");
+            }
+            if (id == 2) {
+                throw BatchProcessorTest.<RuntimeException>sneaky(new IOException("checked"));
+            }
+            return ECHO.apply(body);
+        };
+
+        List<JsonNode> lines = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> process("[{\"id\": 0}, {\"id\": 1}, {\"id\": 2}, {\"id\": 3}]", failing));
+
+        assertEquals(Set.of(0, 1, 2, 3), indexes(lines));
+        for (JsonNode line : lines) {
+            int index = line.get("index").asInt();
+            assertEquals(index == 1 || index == 2 ? 500 : 200, line.get("status").asInt(), line.toString());
+        }
+    }
+
+    private List<JsonNode> process(String batch, Function<byte[], ResponseEntity<?>> handler) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        processor.process(new ByteArrayInputStream(batch.getBytes(StandardCharsets.UTF_8)), output, handler);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private static Set<Integer> indexes(List<JsonNode> lines) {
+        Set<Integer> indexes = new HashSet<>();
+        for (JsonNode line : lines) {
+            indexes.add(line.get("index").asInt());
+        }
+        return indexes;
+    }
+
+    /**
+     * Delays every n-th item, so that results complete out of order
+     */
+    private static Function<byte[], ResponseEntity<?>> slowFor(int every, Function<byte[], ResponseEntity<?>> handler) {
+        return body -> {
+            ResponseEntity<?> response = handler.apply(body);
+            if ((Integer) ((Map<?, ?>) response.getBody()).get("id") % every == 0) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return response;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneaky(Throwable e) throws E {
+        throw (E) e;
+    }
+}
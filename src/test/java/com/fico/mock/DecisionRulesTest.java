@@ -0,0 +1,110 @@
+package com.fico.mock;
+
+import com.fico.mock.model.Decisioning;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionRulesTest {
+
+    private static final String TABLE = String.join("\n",
+            "# score ranges share endpoints, so 580 and 700 each fall in two ranges",
+            "ruleId,score,channel,decisionCode,creditLimitAmount",
+            "LOW,..579,,D,",
+            "EDGE,580..580,*,P,",
+            "MID,580..699.5,ONLINE|Branch,P,2500",
+            "HIGH,700..,,A,",
+            "ANY_BRANCH,,branch,P,",
+            "");
+
+    private final DecisionRules rules = compile(TABLE);
+
+    @Test
+    void matchesInclusiveRangeEndpoints() {
+        assertEquals("LOW", evaluate("579", null));
+        assertEquals("EDGE", evaluate("580", "ONLINE"));
+        assertEquals("MID", evaluate("580.5", "ONLINE"));
+        assertEquals("MID", evaluate("699.5", "online"));
+        assertEquals("HIGH", evaluate("700", null));
+        assertEquals("HIGH", evaluate("1e6", null));
+        assertEquals("LOW", evaluate("-12", null));
+    }
+
+    @Test
+    void fallsThroughGapsBetweenRanges() {
+        assertEquals("ANY_BRANCH", evaluate("699.7", "BRANCH"));
+        assertEquals("DEFAULT", evaluate("699.7", "ONLINE"));
+    }
+
+    @Test
+    void treatsNonNumericValuesAsOutsideEveryRange() {
+        for (String value : List.of("", " ", "abc", "7oo", "1e", "NaN", "Infinity", "0x10", "..")) {
+            assertEquals("DEFAULT", evaluate(value, "ONLINE"), value);
+            assertEquals("ANY_BRANCH", evaluate(value, "branch"), value);
+        }
+        assertEquals("HIGH", evaluate(" 750 ", null));
+        assertEquals("HIGH", evaluate("99999999999999999999", null));
+    }
+
+    @Test
+    void matchesMissingFieldsOnlyWithWildcards() {
+        assertEquals("DEFAULT", evaluate(null, null));
+        assertEquals("ANY_BRANCH", evaluate(null, "Branch"));
+    }
+
+    @Test
+    void readsLeadingPathsAheadOfRuleColumns() {
+        assertEquals(List.of("application.applicationId", "score", "channel"), rules.getExtractor().getPaths());
+    }
+
+    @Test
+    void rejectsInvalidTables() {
+        assertThrows(RuntimeException.class, () -> compile("ruleId,score,decisionCode\nR,9..1,A\n"));
+        assertThrows(RuntimeException.class, () -> compile("ruleId,score,decisionCode\nR,low..high,A\n"));
+        assertThrows(RuntimeException.class, () -> compile("ruleId,score,decisionCode\nR,1..2\n"));
+        assertThrows(RuntimeException.class, () -> compile("ruleId,score\nR,1..2\n"));
+        assertThrows(RuntimeException.class, () -> compile("# only a comment\n"));
+    }
+
+    @Test
+    void readsQuotedCellsWithCommasAndQuotes() {
+        DecisionRules quoted = compile(String.join("\n",
+                "ruleId,channel,decisionCode,decisionReason,creditLimitAmount",
+                "SCORE,\"ONLINE|BRANCH\" ,D,\"Declined - score, history\",",
+                "QUOTE,PHONE,P, \"Pending - \"\"manual\"\" review\" ,2500",
+                ""));
+
+        DecisionRules.Rule declined = quoted.evaluate(new String[] {"APP-1", "branch"});
+        assertEquals("SCORE", declined.getRuleId());
+        assertEquals(Decisioning.of("D", "Declined - score, history", 0, 0.0), declined.getDecisioning());
+        assertEquals(Decisioning.of("P", "Pending - \"manual\" review", 2500, 0.0),
+                quoted.evaluate(new String[] {"APP-1", "phone"}).getDecisioning());
+    }
+
+    @Test
+    void rejectsMalformedQuotesNamingTheLine() {
+        RuntimeException unterminated = assertThrows(RuntimeException.class,
+                () -> compile("ruleId,decisionCode,decisionReason\n\nR,D,\"Declined, score\n"));
+        assertEquals("Unterminated quoted cell at test line 3", unterminated.getMessage());
+
+        RuntimeException trailing = assertThrows(RuntimeException.class,
+                () -> compile("ruleId,decisionCode,decisionReason\nR,D,\"Declined\" score\n"));
+        assertEquals("Unexpected text after quoted cell at test line 2", trailing.getMessage());
+    }
+
+    private String evaluate(String score, String channel) {
+        return rules.evaluate(new String[] {"APP-1", score, channel}).getRuleId();
+    }
+
+    private static DecisionRules compile(String csv) {
+        try {
+            return DecisionRules.compile("test", new StringReader(csv), List.of("application.applicationId"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
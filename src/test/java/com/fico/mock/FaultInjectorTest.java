@@ -0,0 +1,71 @@
+package com.fico.mock;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "mock.faults.decision.error-rate=1",
+        "mock.faults.decision.error-status=418"})
+@AutoConfigureMockMvc
+class FaultInjectorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void answersWithTheConfiguredStatusWhenAnErrorIsInjected() throws Exception {
+        mockMvc.perform(post("/api/dm/decision").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().is(418))
+                .andExpect(jsonPath("$.status").value("ERROR"))
+                .andExpect(jsonPath("$.message").value("Injected fault for /api/dm/decision"));
+
+        mockMvc.perform(get("/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void readsProfilesForConfiguredEndpointsOnly() {
+        Map<String, FaultInjector.Profile> profiles = FaultInjector.profiles(new MockEnvironment()
+                .withProperty("mock.faults.transaction.latency", "fixed:5")
+                .withProperty("mock.faults.token.error-rate", "0.25")
+                .withProperty("mock.faults.batch.latency", " "));
+
+        assertEquals(2, profiles.size());
+        FaultInjector.Profile transaction = profiles.get("/api/plor/v1/transaction");
+        assertEquals(5_000_000, transaction.latency.sampleNanos());
+        assertEquals(0.0, transaction.errorRate);
+        FaultInjector.Profile token = profiles.get("/oauth/token");
+        assertNull(token.latency);
+        assertEquals(0.25, token.errorRate);
+        assertEquals(503, token.errorStatus);
+    }
+
+    @Test
+    void rejectsInvalidErrorSettings() {
+        for (String rate : new String[] {"-0.1", "1.5", "NaN"}) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> FaultInjector.profiles(
+                    new MockEnvironment().withProperty("mock.faults.transaction.error-rate", rate)), rate);
+            assertTrue(e.getMessage().startsWith("mock.faults.transaction.error-rate must be between 0 and 1"), e.getMessage());
+        }
+
+        RuntimeException status = assertThrows(RuntimeException.class, () -> FaultInjector.profiles(new MockEnvironment()
+                .withProperty("mock.faults.decision.error-rate", "0.5")
+                .withProperty("mock.faults.decision.error-status", "99")));
+        assertEquals("mock.faults.decision.error-status must be an HTTP status between 100 and 599: 99", status.getMessage());
+
+        assertThrows(RuntimeException.class, () -> FaultInjector.profiles(
+                new MockEnvironment().withProperty("mock.faults.batch.latency", "sometimes")));
+    }
+}
@@ -0,0 +1,66 @@
+package com.fico.mock;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFieldExtractorTest {
+
+    private final JsonFieldExtractor extractor = new JsonFieldExtractor(List.of(
+            "application.applicationId", "applicants[1].firstName", "score", "matrix[0][1]"));
+
+    @Test
+    void readsFieldsInPathOrder() throws IOException {
+        String[] values = extract("{\"score\": 712, \"matrix\": [[1, 2], [3]], \"ignored\": {\"deep\": [1, {\"x\": 2}]},"
+                + " \"applicants\": [{\"firstName\": \"Ann\"}, {\"firstName\": \"Bob\"}],"
+                + " \"application\": {\"applicationId\": \"APP-1\"}}");
+        assertArrayEquals(new String[] {"APP-1", "Bob", "712", "2"}, values);
+    }
+
+    @Test
+    void leavesAbsentNullAndNonScalarFieldsNull() throws IOException {
+        assertArrayEquals(new String[4], extract("{}"));
+        assertArrayEquals(new String[4], extract("{\"application\": {\"applicationId\": null}, \"score\": {\"value\": 1},"
+                + " \"applicants\": [{\"firstName\": \"Ann\"}], \"matrix\": 5}"));
+        assertArrayEquals(new String[] {null, null, "true", null}, extract("{\"application\": \"APP-1\", \"score\": true,"
+                + " \"applicants\": {\"1\": {\"firstName\": \"Bob\"}}, \"matrix\": [[1]]}"));
+    }
+
+    @Test
+    void stopsReadingOnceEveryFieldIsFound() throws IOException {
+        JsonFieldExtractor single = new JsonFieldExtractor(List.of("score"));
+        assertArrayEquals(new String[] {"712"}, single.extract(stream("{\"score\": 712, \"rest\": [this is not JSON")));
+    }
+
+    @Test
+    void rejectsMalformedAndTruncatedBodies() {
+        for (String body : List.of("", "[1, 2]", "\"text\"", "42", "null")) {
+            IOException e = assertThrows(IOException.class, () -> extract(body), body);
+            assertEquals("Request body is not a JSON object", e.getMessage(), body);
+        }
+        for (String body : List.of("{\"score\": ", "{\"score\": 712", "{\"application\": {\"applicationId\": }", "{score: 1}")) {
+            assertThrows(IOException.class, () -> extract(body), body);
+        }
+    }
+
+    @Test
+    void rejectsInvalidPaths() {
+        assertThrows(RuntimeException.class, () -> new JsonFieldExtractor(List.of("a.b", "a.b")));
+        assertThrows(RuntimeException.class, () -> new JsonFieldExtractor(List.of("applicants[0.firstName")));
+        assertThrows(RuntimeException.class, () -> new JsonFieldExtractor(List.of("applicants[x].firstName")));
+        assertEquals(List.of(), new JsonFieldExtractor(List.of()).getPaths());
+    }
+
+    private String[] extract(String body) throws IOException {
+        return extractor.extract(stream(body));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.fico.mock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyDistributionTest {
+
+    private static final int SAMPLES = 10_000;
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void parsesFixedLatencies() {
+        assertEquals(50 * MILLIS, LatencyDistribution.parse("fixed:50").sampleNanos());
+        assertEquals(MILLIS / 2, LatencyDistribution.parse(" fixed : 0.5 ").sampleNanos());
+        assertEquals(0, LatencyDistribution.parse("fixed:0").sampleNanos());
+    }
+
+    @Test
+    void samplesUniformLatenciesWithinTheRange() {
+        LatencyDistribution uniform = LatencyDistribution.parse("uniform:20..200");
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long sample = uniform.sampleNanos();
+            min = Math.min(min, sample);
+            max = Math.max(max, sample);
+        }
+        assertTrue(min >= 20 * MILLIS && max <= 200 * MILLIS, min + ".." + max);
+        assertTrue(min < 30 * MILLIS && max > 190 * MILLIS, min + ".." + max);
+
+        assertEquals(5 * MILLIS, LatencyDistribution.parse("uniform:5..5").sampleNanos());
+    }
+
+    @Test
+    void samplesLognormalLatenciesAroundTheMedian() {
+        LatencyDistribution lognormal = LatencyDistribution.parse("lognormal:40,0.6");
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = lognormal.sampleNanos();
+            assertTrue(samples[i] >= 0);
+        }
+        Arrays.sort(samples);
+        long median = samples[SAMPLES / 2];
+        assertTrue(median > 36 * MILLIS && median < 44 * MILLIS, String.valueOf(median));
+
+        assertEquals(40 * MILLIS, LatencyDistribution.parse("lognormal:40,0").sampleNanos());
+    }
+
+    @Test
+    void samplesHistogramBucketsByWeight() {
+        LatencyDistribution histogram = LatencyDistribution.parse("histogram:10=70, 50=25, 400=0, 2000=5");
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            counts.merge(histogram.sampleNanos(), 1, Integer::sum);
+        }
+
+        assertEquals(Set.of(10 * MILLIS, 50 * MILLIS, 2000 * MILLIS), counts.keySet());
+        assertEquals(0.70, counts.get(10 * MILLIS) / (double) SAMPLES, 0.03);
+        assertEquals(0.25, counts.get(50 * MILLIS) / (double) SAMPLES, 0.03);
+        assertEquals(0.05, counts.get(2000 * MILLIS) / (double) SAMPLES, 0.02);
+
+        assertEquals(7 * MILLIS, LatencyDistribution.parse("histogram:7=1").sampleNanos());
+    }
+
+    @Test
+    void rejectsMalformedSpecsWithTheSpecInTheMessage() {
+        Map<String, String> malformed = new LinkedHashMap<>();
+        malformed.put("50", "Latency spec must look like <type>:<parameters>: 50");
+        malformed.put("gaussian:1,2", "Unknown latency distribution 'gaussian': gaussian:1,2");
+        malformed.put("fixed:abc", "Invalid latency spec: fixed:abc");
+        malformed.put("fixed:", "Invalid latency spec: fixed:");
+        malformed.put("fixed:-1", "Latency must be a non-negative number of milliseconds: -1.0");
+        malformed.put("fixed:NaN", "Latency must be a non-negative number of milliseconds: NaN");
+        malformed.put("uniform:20", "Uniform latency must look like uniform:<min>..<max>: uniform:20");
+        malformed.put("uniform:1..2..3", "Uniform latency must look like uniform:<min>..<max>: uniform:1..2..3");
+        malformed.put("uniform:200..20", "Empty uniform range: uniform:200..20");
+        malformed.put("lognormal:40", "Lognormal latency must look like lognormal:<median>,<sigma>: lognormal:40");
+        malformed.put("lognormal:40,-1", "Lognormal sigma must be a non-negative number: lognormal:40,-1");
+        malformed.put("histogram:10", "Histogram bucket must look like <latency>=<weight>: 10");
+        malformed.put("histogram:10=1,50=x", "Invalid latency spec: histogram:10=1,50=x");
+        malformed.put("histogram:10=-1,50=2", "Histogram weight must be a non-negative number: 10=-1");
+        malformed.put("histogram:10=0,50=0", "Histogram has no weight: 10=0,50=0");
+
+        for (Map.Entry<String, String> spec : malformed.entrySet()) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> LatencyDistribution.parse(spec.getKey()), spec.getKey());
+            assertEquals(spec.getValue(), e.getMessage(), spec.getKey());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.fico.mock;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockMetricsTest {
+
+    private static final String TRANSACTION_PATH = "/api/plor/v1/transaction";
+    private static final String BODY = "{\"status\":\"SUCCESS\"}";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockMetrics metrics = new MockMetrics(registry);
+    private FaultInjector faultInjector;
+
+    @AfterEach
+    void close() {
+        if (faultInjector != null) {
+            faultInjector.destroy();
+        }
+    }
+
+    @Test
+    void recordsAPlainRequest() throws Exception {
+        MockHttpServletRequest request = request("/health");
+        request.setContent("{}".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new MockFilterChain(respond(200), metrics.filter()).doFilter(request, response);
+
+        assertEquals(BODY, response.getContentAsString());
+        assertEquals(1, timer("health", "200").count());
+        assertEquals(BODY.length(), size("mock.response.size", "health").totalAmount());
+        assertEquals(2, size("mock.request.size", "health").totalAmount());
+        assertEquals(0, active("health"));
+    }
+
+    @Test
+    void recordsADelayedRequestOnceAfterItsAsyncDispatch() throws Exception {
+        faultInjector = new FaultInjector(Map.of(TRANSACTION_PATH,
+                new FaultInjector.Profile(LatencyDistribution.parse("fixed:20"), 0, 503)), metrics);
+        MockHttpServletRequest request = request(TRANSACTION_PATH);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Servlet servlet = respond(201);
+
+        faultInjector.doFilter(request, response, new MockFilterChain(servlet, metrics.filter()));
+        assertTrue(request.isAsyncStarted());
+        assertNull(registry.find("mock.requests").timer());
+
+        // Replays what the container does when the scheduler dispatches the delayed request
+        CountDownLatch dispatched = new CountDownLatch(1);
+        ((MockAsyncContext) request.getAsyncContext()).addDispatchHandler(() -> {
+            request.setAsyncStarted(false);
+            request.setDispatcherType(DispatcherType.ASYNC);
+            try {
+                faultInjector.doFilter(request, response, new MockFilterChain(servlet, metrics.filter()));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            dispatched.countDown();
+        });
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, timer("transaction", "201").count());
+        assertEquals(1, registry.get("mock.faults.delay").tag("endpoint", "transaction").timer().count());
+        assertEquals(BODY.length(), size("mock.response.size", "transaction").totalAmount());
+        assertEquals(0, active("transaction"));
+    }
+
+    @Test
+    void recordsAStreamedResponseWhenItCompletes() throws Exception {
+        MockHttpServletRequest request = request(TRANSACTION_PATH + "/batch");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new MockFilterChain(stream(), metrics.filter()).doFilter(request, response);
+        assertEquals(1, active("batch"));
+        assertNull(registry.find("mock.requests").timer());
+
+        request.getAsyncContext().getResponse().getWriter().write(BODY);
+        request.getAsyncContext().complete();
+
+        assertEquals(1, timer("batch", "200").count());
+        assertEquals(BODY.length(), size("mock.response.size", "batch").totalAmount());
+        assertEquals(0, active("batch"));
+    }
+
+    @Test
+    void recordsTheFinalStatusOfATimedOutStreamedResponse() throws Exception {
+        MockHttpServletRequest request = request(TRANSACTION_PATH + "/batch");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new MockFilterChain(stream(), metrics.filter()).doFilter(request, response);
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        assertEquals(1, active("batch"));
+
+        // The container completes a timed out request after its timeout handling, here with a 503
+        response.setStatus(503);
+        asyncContext.complete();
+
+        assertEquals(1, timer("batch", "503").count());
+        assertNull(registry.find("mock.requests").tag("status", "200").timer());
+        assertEquals(0, active("batch"));
+    }
+
+    @Test
+    void ignoresUnknownPathsAndMeasuresARequestOnlyOnce() throws Exception {
+        new MockFilterChain(respond(200), metrics.filter()).doFilter(request("/actuator/health"), new MockHttpServletResponse());
+        assertNull(registry.find("mock.requests").timer());
+
+        MockHttpServletRequest request = request("/oauth/token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(respond(200), metrics.filter(), metrics.filter()).doFilter(request, response);
+        assertEquals(1, timer("token", "200").count());
+        assertEquals(0, active("token"));
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static Servlet respond(int status) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setStatus(status);
+                response.getWriter().write(BODY);
+            }
+        };
+    }
+
+    /** Starts async handling and leaves the body to be written later, as streamed batch responses do */
+    private static Servlet stream() {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.startAsync(request, response);
+            }
+        };
+    }
+
+    private Timer timer(String endpoint, String status) {
+        return registry.get("mock.requests").tag("endpoint", endpoint).tag("status", status).timer();
+    }
+
+    private DistributionSummary size(String meter, String endpoint) {
+        return registry.get(meter).tag("endpoint", endpoint).summary();
+    }
+
+    private double active(String endpoint) {
+        return registry.get("mock.requests.active").tag("endpoint", endpoint).gauge().value();
+    }
+}
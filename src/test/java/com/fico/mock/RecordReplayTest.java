@@ -0,0 +1,76 @@
+package com.fico.mock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordReplayTest {
+
+    private static final String PATH = "/api/plor/v1/transaction";
+    private static final List<String> KEY_PATHS = List.of("application.applicationId");
+
+    /** Stands in for the live decision: 400 for anything that is not a JSON object, as decideTransaction answers */
+    private static final Function<byte[], ResponseEntity<?>> LIVE = body -> {
+        String text = new String(body, StandardCharsets.UTF_8).trim();
+        if (!text.startsWith("{") || !text.endsWith("}")) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR"));
+        }
+        return ResponseEntity.ok(Map.of("status", "SUCCESS"));
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordAnswersUnreadableBodiesLiveWithoutRecording() throws IOException {
+        Path file = dir.resolve("recording.log");
+        try (RecordReplay recordReplay = RecordReplay.create("record", file, KEY_PATHS, "", "")) {
+            for (String body : List.of("{\"application\": ", "[1, 2]", "\"text\"", "")) {
+                ResponseEntity<?> response = recordReplay.handle(PATH, bytes(body), LIVE);
+                assertEquals(400, response.getStatusCode().value(), body);
+                assertEquals(Map.of("status", "ERROR"), response.getBody(), body);
+            }
+            assertEquals(200, recordReplay.handle(PATH, bytes("{\"application\": {\"applicationId\": \"A1\"}}"), LIVE)
+                    .getStatusCode().value());
+        }
+
+        assertEquals(1, ReplayStore.open(file).size());
+    }
+
+    @Test
+    void replayAnswersUnreadableBodiesLiveWithoutAMiss() throws IOException {
+        Path file = dir.resolve("recording.log");
+        try (RecordReplay recordReplay = RecordReplay.create("record", file, KEY_PATHS, "", "")) {
+            recordReplay.handle(PATH, bytes("{\"application\": {\"applicationId\": \"A1\"}}"), LIVE);
+        }
+
+        try (RecordReplay recordReplay = RecordReplay.create("replay", file, KEY_PATHS, "", "")) {
+            ResponseEntity<?> malformed = recordReplay.handle(PATH, bytes("{\"application\": {"), LIVE);
+            assertEquals(400, malformed.getStatusCode().value());
+            assertNull(malformed.getHeaders().getFirst(RecordReplay.REPLAY_HEADER));
+
+            ResponseEntity<?> notAnObject = recordReplay.handle(PATH, bytes("[]"), LIVE);
+            assertEquals(400, notAnObject.getStatusCode().value());
+            assertNull(notAnObject.getHeaders().getFirst(RecordReplay.REPLAY_HEADER));
+
+            ResponseEntity<?> recorded = recordReplay.handle(PATH, bytes("{\"application\": {\"applicationId\": \" a1 \"}}"), LIVE);
+            assertEquals("hit", recorded.getHeaders().getFirst(RecordReplay.REPLAY_HEADER));
+        }
+        assertTrue(Files.size(file) > RecordingLog.MAGIC.length);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,126 @@
+package com.fico.mock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void createsAnEmptyLogWithOnlyTheHeader() throws IOException {
+        Path file = dir.resolve("nested/recording.log");
+        RecordingLog.open(file).close();
+
+        assertArrayEquals(RecordingLog.MAGIC, Files.readAllBytes(file));
+        ReplayStore store = ReplayStore.open(file);
+        assertEquals(0, store.size());
+        assertNull(store.lookup(bytes("anything")));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotRecordings() throws IOException {
+        Path empty = Files.createFile(dir.resolve("empty.log"));
+        assertThrows(RuntimeException.class, () -> ReplayStore.open(empty));
+
+        Path other = Files.writeString(dir.resolve("other.log"), "MOCKREC0 and then some");
+        assertThrows(RuntimeException.class, () -> ReplayStore.open(other));
+        assertThrows(RuntimeException.class, () -> RecordingLog.open(other));
+        assertEquals("MOCKREC0 and then some", Files.readString(other));
+    }
+
+    @Test
+    void servesTheLatestRecordForAKey() throws IOException {
+        Path file = dir.resolve("recording.log");
+        try (RecordingLog log = RecordingLog.open(file)) {
+            log.append(bytes("a"), 200, bytes("first"));
+            log.append(bytes("b"), 404, bytes(""));
+            log.append(bytes("a"), 201, bytes("second"));
+        }
+
+        ReplayStore store = ReplayStore.open(file);
+        assertEquals(3, store.size());
+        assertRecorded(201, "second", store.lookup(bytes("a")));
+        assertRecorded(404, "", store.lookup(bytes("b")));
+        assertNull(store.lookup(bytes("c")));
+        assertNull(store.lookup(bytes("")));
+    }
+
+    @Test
+    void ignoresATruncatedRecordAndCutsItOffOnReopen() throws IOException {
+        Path file = dir.resolve("recording.log");
+        try (RecordingLog log = RecordingLog.open(file)) {
+            log.append(bytes("kept"), 200, bytes("{\"ok\": true}"));
+        }
+        long complete = Files.size(file);
+        try (RecordingLog log = RecordingLog.open(file)) {
+            log.append(bytes("torn"), 200, bytes("{\"ok\": false}"));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+
+        ReplayStore store = ReplayStore.open(file);
+        assertEquals(1, store.size());
+        assertRecorded(200, "{\"ok\": true}", store.lookup(bytes("kept")));
+        assertNull(store.lookup(bytes("torn")));
+
+        try (RecordingLog log = RecordingLog.open(file)) {
+            assertEquals(complete, Files.size(file));
+            log.append(bytes("torn"), 500, bytes("again"));
+        }
+        assertRecorded(500, "again", ReplayStore.open(file).lookup(bytes("torn")));
+    }
+
+    @Test
+    void stopsAtARecordWithAnImpossibleLength() throws IOException {
+        Path file = dir.resolve("recording.log");
+        try (RecordingLog log = RecordingLog.open(file)) {
+            log.append(bytes("a"), 200, bytes("body"));
+        }
+        Files.write(file, new byte[] {0, 0, 0, 1, 0, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        assertEquals(1, ReplayStore.open(file).size());
+    }
+
+    @Test
+    void mapsRecordsAcrossChunkBoundaries() throws IOException {
+        Path file = dir.resolve("recording.log");
+        int count = 2_000;
+        try (RecordingLog log = RecordingLog.open(file)) {
+            for (int i = 0; i < count; i++) {
+                log.append(bytes("key-" + i), 200 + i % 300, bytes("x".repeat(i % 97) + i));
+            }
+        }
+
+        // Chunks smaller than, equal to and larger than a record, so records start and end on every side of a boundary
+        for (long chunkSize : new long[] {7, 64, 1000, ReplayStore.CHUNK_SIZE}) {
+            ReplayStore store = ReplayStore.open(file, chunkSize);
+            assertEquals(count, store.size());
+            for (int i = 0; i < count; i++) {
+                assertRecorded(200 + i % 300, "x".repeat(i % 97) + i, store.lookup(bytes("key-" + i)));
+            }
+            assertNull(store.lookup(bytes("key-" + count)));
+        }
+    }
+
+    private static void assertRecorded(int status, String body, ReplayStore.Recorded recorded) {
+        assertNotNull(recorded);
+        assertEquals(status, recorded.status);
+        assertEquals(body, new String(recorded.body, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
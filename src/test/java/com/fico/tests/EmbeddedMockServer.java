@@ -0,0 +1,48 @@
+package com.fico.tests;
+
+import com.fico.mock.MockServerApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the mock server inside the test JVM on a free port, started once and shared by every runner and Karate
+ * thread, and stopped by Spring's shutdown hook when the JVM exits. Enabled with -Dmock.embedded=true, with
+ * Spring Boot arguments from -Dmock.embedded.args; the base URL is published as the mock.baseUrl system property,
+ * which karate-config.js uses instead of the environment's URL.
+ */
+final class EmbeddedMockServer {
+
+    static final String ENABLED_PROPERTY = "mock.embedded";
+    static final String ARGS_PROPERTY = "mock.embedded.args";
+    static final String BASE_URL_PROPERTY = "mock.baseUrl";
+
+    private static ConfigurableApplicationContext context;
+
+    private EmbeddedMockServer() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * Starts the mock unless it is already running and sets mock.baseUrl
+     * @return The mock's base URL, e.g., "http://localhost:53817"
+     */
+    static synchronized String start() {
+        if (context == null) {
+            String extra = System.getProperty(ARGS_PROPERTY, "").trim();
+            String[] args = extra.isEmpty() ? new String[0] : extra.split("\\s+");
+            String[] arguments = new String[args.length + 2];
+            arguments[0] = "--server.port=0";
+            arguments[1] = "--spring.main.banner-mode=off";
+            System.arraycopy(args, 0, arguments, 2, args.length);
+
+            context = SpringApplication.run(MockServerApplication.class, arguments);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            System.setProperty(BASE_URL_PROPERTY, "http://localhost:" + port);
+        }
+        return System.getProperty(BASE_URL_PROPERTY);
+    }
+}
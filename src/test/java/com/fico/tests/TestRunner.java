@@ -1,26 +1,128 @@
 package com.fico.tests;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fico.karate.utils.TimingRecorder;
+import com.fico.karate.utils.ValidationSummary;
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.Results;
+import com.intuit.karate.Runner;
 import com.intuit.karate.junit5.Karate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class TestRunner {
-    
+
+    private static final String MERGED_CUCUMBER_REPORT = "cucumber-merged.json";
+    private static final String VALIDATION_SUMMARY = "validation-summary.json";
+    private static final String TIMING_REPORT = "reports/karate-timing.json";
+
+    private static final TimingHook TIMING_HOOK = new TimingHook();
+
+    /**
+     * Records request phase timings for the per-feature report
+     */
+    @BeforeAll
+    static void enableTimings() {
+        TimingRecorder.setEnabled(true);
+    }
+
+    /**
+     * With -Dmock.embedded=true, serves every feature from a mock started in this JVM instead of a separate process
+     */
+    @BeforeAll
+    static void startEmbeddedMock() {
+        if (EmbeddedMockServer.isEnabled()) {
+            EmbeddedMockServer.start();
+        }
+    }
+
     @Karate.Test
     Karate testPlor() {
-        return Karate.run("features/plor/plor_api").relativeTo(getClass());
+        return Karate.run("features/plor/plor_api").hook(TIMING_HOOK).relativeTo(getClass());
     }
-    
+
     @Karate.Test
     Karate testAll() {
-        return Karate.run("features/plor/plor_api").relativeTo(getClass());
+        return Karate.run("features/plor/plor_api").hook(TIMING_HOOK).relativeTo(getClass());
     }
-    
+
     @Karate.Test
     Karate testSmoke() {
-        return Karate.run("features/plor/plor_api").tags("@smoke").relativeTo(getClass());
+        return Karate.run("features/plor/plor_api").tags("@smoke").hook(TIMING_HOOK).relativeTo(getClass());
     }
-    
+
     @Karate.Test
     Karate testRegression() {
-        return Karate.run("features/plor/plor_api").tags("@regression").relativeTo(getClass());
+        return Karate.run("features/plor/plor_api").tags("@regression").hook(TIMING_HOOK).relativeTo(getClass());
+    }
+
+    /**
+     * Runs every feature once across a thread pool sized by -Dkarate.threads, e.g.
+     * ./gradlew test --tests com.fico.tests.TestRunner.testParallel -Dkarate.threads=8
+     * Tags and paths can still be narrowed with -Dkarate.options.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "karate.threads", matches = "\\d+")
+    void testParallel() throws IOException {
+        int threads = Integer.getInteger("karate.threads");
+        Results results = Runner.path("classpath:com/fico/tests/features")
+                .hook(TIMING_HOOK)
+                .outputCucumberJson(true)
+                .outputJunitXml(true)
+                .parallel(threads);
+
+        mergeCucumberReports(new File(results.getReportDir()));
+        assertEquals(0, results.getFailCount(), results.getErrorMessages());
+    }
+
+    /**
+     * Writes the response validation totals of every test in this class to the build directory and prints them
+     */
+    @AfterAll
+    static void writeValidationSummary() throws IOException {
+        if (ValidationSummary.getRows() == 0) {
+            return;
+        }
+        ValidationSummary.write(new File(FileUtils.getBuildDir(), VALIDATION_SUMMARY).toPath());
+        System.out.print(ValidationSummary.format());
+    }
+
+    /**
+     * Writes per-feature scenario rates and phase percentiles of every test in this class to build/reports and prints them
+     */
+    @AfterAll
+    static void writeTimingReport() throws IOException {
+        if (TimingRecorder.getScenarios() == 0) {
+            return;
+        }
+        TimingRecorder.write(new File(FileUtils.getBuildDir(), TIMING_REPORT).toPath());
+        System.out.print(TimingRecorder.format());
+    }
+
+    /**
+     * Merges the per-feature Cucumber JSON reports into one file for CI report publishers
+     */
+    private static void mergeCucumberReports(File reportDir) throws IOException {
+        File[] reports = reportDir.listFiles((dir, name) -> name.endsWith(".json") && !name.equals(MERGED_CUCUMBER_REPORT));
+        if (reports == null) {
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        List<Object> features = new ArrayList<>();
+        for (File report : reports) {
+            features.addAll(mapper.readValue(report, new TypeReference<List<Object>>() {}));
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(new File(reportDir, MERGED_CUCUMBER_REPORT), features);
     }
 }
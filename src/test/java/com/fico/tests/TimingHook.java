@@ -0,0 +1,85 @@
+package com.fico.tests;
+
+import com.fico.karate.utils.TimingRecorder;
+import com.intuit.karate.RuntimeHook;
+import com.intuit.karate.core.FeatureRuntime;
+import com.intuit.karate.core.ScenarioRuntime;
+import com.intuit.karate.http.HttpRequest;
+import com.intuit.karate.http.Response;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feeds {@link TimingRecorder}: times each top-level feature run, names the feature of each top-level scenario for
+ * the phases recorded while it runs, and times every HTTP call as an "http METHOD /path" phase. Scenarios and calls
+ * of called features count toward their caller.
+ */
+class TimingHook implements RuntimeHook {
+
+    private static final ThreadLocal<Long> httpStart = new ThreadLocal<>();
+
+    /** In parallel runs a feature may finish on another thread than the one it started on */
+    private final Map<FeatureRuntime, Long> featureStarts = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean beforeFeature(FeatureRuntime fr) {
+        if (fr.caller.isNone()) {
+            featureStarts.put(fr, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterFeature(FeatureRuntime fr) {
+        Long start = featureStarts.remove(fr);
+        if (start != null) {
+            TimingRecorder.recordFeatureRun(featureName(fr), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean beforeScenario(ScenarioRuntime sr) {
+        if (sr.caller.isNone()) {
+            TimingRecorder.startScenario(featureName(sr.featureRuntime));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterScenario(ScenarioRuntime sr) {
+        if (sr.caller.isNone()) {
+            TimingRecorder.finishScenario(sr.isFailed());
+        }
+    }
+
+    @Override
+    public void beforeHttpCall(HttpRequest request, ScenarioRuntime sr) {
+        httpStart.set(System.nanoTime());
+    }
+
+    @Override
+    public void afterHttpCall(HttpRequest request, Response response, ScenarioRuntime sr) {
+        Long start = httpStart.get();
+        if (start != null) {
+            httpStart.remove();
+            TimingRecorder.recordNanos("http " + request.getMethod().toUpperCase(Locale.ROOT) + " " + path(request.getUrl()),
+                    System.nanoTime() - start);
+        }
+    }
+
+    private static String featureName(FeatureRuntime fr) {
+        return fr.featureCall.feature.getPackageQualifiedName();
+    }
+
+    private static String path(String url) {
+        try {
+            String path = URI.create(url).getPath();
+            return path == null || path.isEmpty() ? "/" : path;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
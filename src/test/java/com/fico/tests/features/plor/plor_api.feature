@@ -9,12 +9,16 @@ Background:
 @smoke @regression
 Scenario Outline: Process PLOR application and validate decisioning for <testCaseName>
 
-  # Use a simple static request payload for now to test basic functionality
-  * def requestPayload = basePayload
+  # Populate the template from this Examples row
+  * def requestPayload = utils.populateRequestFromTemplate(__row)
   * karate.log('Generated request payload:', requestPayload)
   
-  # Execute the API call
+  # Validate the request payload against the OpenAPI request schema
+  * match utils.validateRequestSchema('/api/plor/v1/transaction', 'post', requestPayload) == []
+  
+  # Execute the API call with a cached access token
   Given path '/api/plor/v1/transaction'
+  And header Authorization = utils.authorizationHeader()
   And request requestPayload
   When method post
   Then status 200
@@ -27,8 +31,11 @@ Scenario Outline: Process PLOR application and validate decisioning for <testCas
   # Simplified validation for now
   * karate.log('Response received:', response)
   
-  # Additional structural validations - simplified for now
+  # Additional structural validations
   * match response.creditDecisioning.applicationId == '#string'
+  
+  # Compare the response with the row's response.* columns; totals go to the run's validation summary
+  * match utils.validateResponse(response, __row) == []
 
 Examples:
 | karate.read('classpath:testdata/plor_test_scenarios.csv') |
@@ -50,9 +57,29 @@ Scenario: Test authentication endpoint
   * match response.token_type == 'Bearer'
   * match response.expires_in == '#number'
 
+@regression
+Scenario: Reject an invalid bearer token
+  Given path '/api/plor/v1/transaction'
+  And header Authorization = 'Bearer not_a_mock_token'
+  And request basePayload
+  When method post
+  Then status 401
+  * match response.status == 'ERROR'
+
+@regression
+Scenario: Submit all scenario rows through the batch endpoint
+  * def rows = karate.read('classpath:testdata/plor_test_scenarios.csv')
+  * def results = utils.submitScenarioRows(rows, 2)
+  * match results == '#[rows.length]'
+  * match each results == { index: '#number', status: 200, response: '#object' }
+  * match each results[*].response.status == 'SUCCESS'
+  * match results[0].response.creditDecisioning.applicationId == '#string'
+  * match utils.validateBatchResults(results, rows) == []
+
 @regression
 Scenario: Test DM decision endpoint
   Given path '/api/dm/decision'
+  And header Authorization = utils.authorizationHeader()
   And request { applicationId: 'APP-TEST', riskFactors: ['income', 'credit_score'] }
   When method post
   Then status 200
@@ -2,10 +2,20 @@ function fn() {
     var config = {};
     
     var YamlSchemaUtils = Java.type('com.fico.karate.utils.YamlSchemaUtils');
+    var SchemaValidator = Java.type('com.fico.karate.utils.SchemaValidator');
     config.schema = YamlSchemaUtils.loadSchemaAsMap('classpath:api_schema.yaml');
     
     config.basePayload = read('classpath:com/fico/tests/features/plor/plor_api_template.json');
     
+    var JsonTemplate = Java.type('com.fico.karate.utils.JsonTemplate');
+    var TokenCache = Java.type('com.fico.karate.utils.TokenCache');
+    var BatchTransactionClient = Java.type('com.fico.karate.utils.BatchTransactionClient');
+    var ResponseValidator = Java.type('com.fico.karate.utils.ResponseValidator');
+    var validationMode = ResponseValidator.Mode.of(karate.properties['validation.mode']);
+    var ValueConversionPlan = Java.type('com.fico.karate.utils.ValueConversionPlan');
+    var payloadTemplate = JsonTemplate.load('classpath:com/fico/tests/features/plor/plor_api_template.json')
+        .withConversions(ValueConversionPlan.forRequestBody('classpath:api_schema.yaml', '/api/plor/v1/transaction', 'post'));
+    
     var env = karate.env;
     if (!env) {
         env = 'dev';
@@ -21,6 +31,14 @@ function fn() {
         config.baseUrl = 'https://api.fico.com';
     }
     
+    // Set by TestRunner when the mock runs in the test JVM (-Dmock.embedded=true)
+    if (karate.properties['mock.baseUrl']) {
+        config.baseUrl = karate.properties['mock.baseUrl'];
+    }
+    
+    var tokenUrl = config.baseUrl + '/oauth/token';
+    var batchUrl = config.baseUrl + '/api/plor/v1/transaction/batch';
+    
     config.headers = {
         'Content-Type': 'application/json',
         'Accept': 'application/json'
@@ -34,6 +52,14 @@ function fn() {
             return new java.util.Date().toString();
         },
         
+        getAccessToken: function() {
+            return TokenCache.getAccessToken(tokenUrl, 'test', 'test');
+        },
+        
+        authorizationHeader: function() {
+            return 'Bearer ' + TokenCache.getAccessToken(tokenUrl, 'test', 'test');
+        },
+        
         populateRequestFromCsv: function(templatePayload, csvRow) {
             try {
                 return YamlSchemaUtils.populateJsonFromCsv(templatePayload, csvRow);
@@ -43,6 +69,27 @@ function fn() {
             }
         },
         
+        populateRequestFromTemplate: function(csvRow) {
+            try {
+                return payloadTemplate.populate(csvRow);
+            } catch (e) {
+                karate.log('Error populating request from template:', e.message);
+                throw e;
+            }
+        },
+        
+        submitTransactions: function(payloads, batchSize) {
+            return BatchTransactionClient.submit(batchUrl, 'Bearer ' + TokenCache.getAccessToken(tokenUrl, 'test', 'test'), payloads, batchSize || 100);
+        },
+        
+        submitScenarioRows: function(csvRows, batchSize) {
+            var payloads = [];
+            for (var i = 0; i < csvRows.length; i++) {
+                payloads.push(payloadTemplate.populate(csvRows[i]));
+            }
+            return BatchTransactionClient.submit(batchUrl, 'Bearer ' + TokenCache.getAccessToken(tokenUrl, 'test', 'test'), payloads, batchSize || 100);
+        },
+        
         validateResponseFromCsv: function(responseJson, csvRow) {
             try {
                 return YamlSchemaUtils.validateResponseFromCsv(responseJson, csvRow);
@@ -52,6 +99,26 @@ function fn() {
             }
         },
         
+        validateRequestSchema: function(apiPath, method, payload) {
+            return SchemaValidator.forRequestBody('classpath:api_schema.yaml', apiPath, method).violationMessages(payload);
+        },
+        
+        validateResponseSchema: function(apiPath, method, status, payload) {
+            return SchemaValidator.forResponse('classpath:api_schema.yaml', apiPath, method, status + '').violationMessages(payload);
+        },
+        
+        validateResponse: function(responseJson, csvRow) {
+            return ResponseValidator.validate(responseJson, csvRow, validationMode).getMessages();
+        },
+        
+        validateBatchResults: function(results, csvRows) {
+            var responses = new java.util.ArrayList();
+            for (var i = 0; i < results.length; i++) {
+                responses.add(results[i].response);
+            }
+            return ResponseValidator.validateAll(responses, csvRows, validationMode);
+        },
+        
         allValidationsPassed: function(validationResults) {
             var allPassed = true;
             for (var key in validationResults) {